@@ -0,0 +1,215 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import fr.upem.ir1.curvysnake.controller.exception.CollisionException;
+import fr.upem.ir1.curvysnake.controller.exception.GameSizeException;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.RectangularShape;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the Bonus management: detection of a Bonus by a head, apparition of a Bonus and decrement of the
+ * Bonus time of all the Snake.
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see BonusListInGame
+ */
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BonusBenchmark {
+
+    /**
+     * Size of the game board.
+     */
+    private static final int GAME_SIZE = 1000;
+    /**
+     * Maximum number of Bonus in game.
+     */
+    private static final int MAX_BONUS = 10;
+
+    /**
+     * A Snake, far from a full list of Bonus.
+     */
+    @State(Scope.Thread)
+    public static class Detect {
+
+        /**
+         * The Snake detecting the Bonus.
+         */
+        private Snake snake;
+
+        /**
+         * Method to create the Snake and the Bonus (on a line, under the Snake).
+         */
+        @Setup
+        public void setUp() {
+            World world = new World(new Rectangle(0, 0, GAME_SIZE, GAME_SIZE));
+
+            for(int i = 0 ; i < MAX_BONUS ; i++) {
+                world.getBonusListInGame().add(new Ellipse2D.Float(i * 60, 500, 50, 50),
+                                               BonusAvailable.SPEED_INCREASE.get());
+            }
+
+            this.snake = new Snake(world, new Point(GAME_SIZE / 2, 100), 0);
+        }
+    }
+
+    /**
+     * A game board, empty or partly covered by Snake bodies.
+     */
+    @State(Scope.Thread)
+    public static class Spawn {
+
+        /**
+         * Number of Snake in game (one per line, in the top half of the board).
+         */
+        @Param({"0", "25"})
+        private int count;
+
+        /**
+         * The game board.
+         */
+        private World world;
+        /**
+         * The Bonus in game.
+         */
+        private BonusListInGame bonusListInGame;
+
+        /**
+         * Method to create the Snake, and move them until their bodies cross the board. A Bonus is added at each tick.
+         *
+         * @throws CollisionException     If a Snake hit a body (it should not).
+         * @throws IllegalAccessException If a bonus can not be affected to a snake.
+         * @throws GameSizeException      If the game size is not set.
+         */
+        @Setup
+        public void setUp() throws CollisionException, IllegalAccessException, GameSizeException {
+            this.world = new World(new Rectangle(0, 0, GAME_SIZE, GAME_SIZE));
+            this.bonusListInGame = this.world.getBonusListInGame();
+            this.bonusListInGame.setSpawnPeriod(1);
+
+            Snake[] snakes = new Snake[this.count];
+            for(int i = 0 ; i < this.count ; i++)
+                snakes[i] = new Snake(this.world, new Point(10, 20 * i + 10), 0);
+
+            // 3 moves of 5 pixels per tick
+            for(int tick = 0 ; tick < (GAME_SIZE - 30) / 15 ; tick++) {
+                for(Snake snake : snakes)
+                    snake.move();
+            }
+        }
+    }
+
+    /**
+     * Snake with many Bonus in action.
+     */
+    @State(Scope.Thread)
+    public static class Decrement {
+
+        /**
+         * The game of the Snake.
+         */
+        private World world;
+
+        /**
+         * Number of Snake in game.
+         */
+        @Param({"1", "64"})
+        private int count;
+
+        /**
+         * Number of Bonus in action of each Snake.
+         */
+        @Param({"10", "100"})
+        private int bonus;
+
+        /**
+         * Method to create the Snake and their Bonus (which never end).
+         */
+        @Setup
+        public void setUp() {
+            this.world = new World(new Rectangle(0, 0, GAME_SIZE, GAME_SIZE));
+
+            for(int i = 0 ; i < this.count ; i++) {
+                Snake snake = new Snake(this.world, new Point(10, 10 * i + 10), 0);
+                for(int j = 0 ; j < this.bonus ; j++)
+                    snake.addBonus(BonusAvailable.SPEED_INCREASE.get().setDuration(Integer.MAX_VALUE), null);
+            }
+        }
+    }
+
+    /**
+     * Benchmark of the detection of the Bonus by a head.
+     *
+     * @param state The Snake and the Bonus.
+     *
+     * @throws IllegalAccessException If a bonus can not be affected to a snake.
+     */
+    @Benchmark
+    public void detectBonus(Detect state) throws IllegalAccessException {
+        state.snake.detectBonus(null);
+    }
+
+    /**
+     * Benchmark of the apparition of a Bonus (one tick of the game, a Bonus is added at each tick). A Bonus is removed
+     * when the list is full, to keep the apparition possible.
+     *
+     * @param state The game board.
+     *
+     * @return The new Bonus (or null).
+     *
+     * @throws GameSizeException If the game size is not set.
+     */
+    @Benchmark
+    public Entry<RectangularShape, Bonus> random(Spawn state) throws GameSizeException {
+        state.world.decrementAll();
+        Entry<RectangularShape, Bonus> bonus = state.bonusListInGame.random();
+
+        if(state.bonusListInGame.size() == MAX_BONUS)
+            state.bonusListInGame.remove(0);
+
+        return bonus;
+    }
+
+    /**
+     * Benchmark of the decrement of the Bonus time of all the Snake.
+     *
+     * @param state The Snake and their Bonus.
+     */
+    @Benchmark
+    public void decrementAll(Decrement state) {
+        state.world.decrementAll();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import fr.upem.ir1.curvysnake.controller.exception.CollisionException;
+import fr.upem.ir1.curvysnake.controller.exception.GameSizeException;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the body of a snake: move and collision detection, for several body lengths and collision modes.
+ * <p>
+ * <p>The body goes straight on a wide and low board. A move makes the body longer (every other time), so the move
+ * is measured by batches from a body rebuilt before each iteration.</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see Movement
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class MovementBenchmark {
+
+    /**
+     * Number of moves of a measured batch.
+     */
+    private static final int BATCH = 1000;
+
+    /**
+     * Number of elements of the body.
+     */
+    @Param({"10", "1000", "100000"})
+    private int length;
+
+    /**
+     * Collision detection used in game.
+     */
+    @Param({"LIST_SCAN", "SPATIAL_HASH", "RASTER"})
+    private CollisionMode mode;
+
+    /**
+     * The measured body.
+     */
+    private Movement movement;
+
+    /**
+     * Method to create a body of <code>length</code> elements.
+     *
+     * @throws CollisionException If the body hit itself (it should not).
+     * @throws GameSizeException  If the game size is not set.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() throws CollisionException, GameSizeException {
+        // Wide enough for the body and a batch of moves (5 pixels per move, 2 moves per element)
+        World world = new World(new Rectangle(0, 0, 10 * (this.length + BATCH) + 100, 40));
+
+        // The body is built with the grid (faster), then registered in the measured structure
+        this.movement = new Snake(world, new Point(20, 20), 0).getMovement();
+        while(this.movement.getMove().size() < this.length)
+            this.step();
+
+        world.setCollisionMode(this.mode);
+    }
+
+    /**
+     * Method to move the body once, straight to the right.
+     *
+     * @throws CollisionException If the body hit itself (it should not).
+     * @throws GameSizeException  If the game size is not set.
+     */
+    private void step() throws CollisionException, GameSizeException {
+        this.movement.move(Heading.x(0), Heading.y(0), 0, 0, false, null);
+    }
+
+    /**
+     * Benchmark of a batch of moves (with the collision detection of the new head).
+     *
+     * @throws CollisionException If the body hit itself (it should not).
+     * @throws GameSizeException  If the game size is not set.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 20, batchSize = BATCH)
+    @Measurement(iterations = 20, batchSize = BATCH)
+    public void move() throws CollisionException, GameSizeException {
+        this.step();
+    }
+
+    /**
+     * Benchmark of the collision detection of the head.
+     *
+     * @return True if the head hit a body (it should not).
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public boolean intersects() {
+        return this.movement.intersects();
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import fr.upem.ir1.curvysnake.controller.exception.CollisionException;
+import fr.upem.ir1.curvysnake.controller.exception.GameSizeException;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of a game tick: move of all the Snake in game.
+ * <p>
+ * <p>Each Snake goes straight on its own line. A move makes the bodies longer (every other time), so the moves are
+ * measured by batches of ticks from new Snake created before each iteration.</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see Snake
+ */
+@State(Scope.Thread)
+@Fork(1)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20, batchSize = SnakeBenchmark.BATCH)
+@Measurement(iterations = 20, batchSize = SnakeBenchmark.BATCH)
+public class SnakeBenchmark {
+
+    /**
+     * Number of ticks of a measured batch.
+     */
+    static final int BATCH = 1000;
+
+    /**
+     * Number of Snake in game.
+     */
+    @Param({"1", "8", "64"})
+    private int count;
+
+    /**
+     * The Snake in game.
+     */
+    private Snake[] snakes;
+
+    /**
+     * Method to create the Snake, each one on its own line.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        // Wide enough for a batch of ticks (3 moves of 5 pixels per tick)
+        World world = new World(new Rectangle(0, 0, 15 * BATCH + 100, 20 * this.count + 20));
+
+        this.snakes = new Snake[this.count];
+        for(int i = 0 ; i < this.count ; i++)
+            this.snakes[i] = new Snake(world, new Point(20, 20 * i + 20), 0);
+    }
+
+    /**
+     * Benchmark of a tick: each Snake move once.
+     *
+     * @throws CollisionException     If a Snake hit a body (it should not).
+     * @throws IllegalAccessException If a bonus can not be affected to a snake.
+     * @throws GameSizeException      If the game size is not set.
+     */
+    @Benchmark
+    public void move() throws CollisionException, IllegalAccessException, GameSizeException {
+        for(Snake snake : this.snakes)
+            snake.move();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.RectangularShape;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the test of a head against every element of a body: the kernel of <code>Trail</code>, the loop reading
+ * each element by index, and the loop on the <code>RectangularShape</code> view of the body.
+ * <p>
+ * <p>The elements are spread on a grid with gaps, and the head is in a gap: it is inside the bounds of the body but
+ * hit no element, so every element is tested.</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see Trail
+ */
+@State(Scope.Thread)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TrailBenchmark {
+
+    /**
+     * Distance between two elements of the grid.
+     */
+    private static final int STEP = 20;
+    /**
+     * Number of elements on a row of the grid.
+     */
+    private static final int COLUMNS = 100;
+
+    /**
+     * Number of elements of the body.
+     */
+    @Param({"10", "100", "1000", "10000", "100000"})
+    private int length;
+
+    /**
+     * The measured body.
+     */
+    private Trail trail;
+
+    /**
+     * Left position of the head.
+     */
+    private float x = 12;
+    /**
+     * Top position of the head.
+     */
+    private float y = 12;
+    /**
+     * Diameter of the head.
+     */
+    private float diameter = 6;
+    /**
+     * The head, as a shape.
+     */
+    private RectangularShape head;
+
+    /**
+     * Method to create a body of <code>length</code> elements. Half of the queue is removed and added again, so the
+     * ring is split in two parts of the arrays.
+     */
+    @Setup
+    public void setUp() {
+        this.trail = new Trail();
+        for(int i = 0 ; i < this.length ; i++)
+            this.add(i);
+        for(int i = 0 ; i < this.length / 2 ; i++) {
+            this.trail.removeFirst();
+            this.add(i);
+        }
+
+        this.head = new Ellipse2D.Float(this.x, this.y, this.diameter, this.diameter);
+    }
+
+    /**
+     * Method to add an element of the grid to the body.
+     *
+     * @param i The index of the element in the grid.
+     */
+    private void add(int i) {
+        this.trail.addLast(i % COLUMNS * STEP, i / COLUMNS * STEP, Movement.defaultDiameter);
+    }
+
+    /**
+     * Benchmark of the kernel reading the arrays of the body (see <code>Trail.overlaps</code>).
+     *
+     * @return True if the head hit an element (it should not).
+     */
+    @Benchmark
+    public boolean kernel() {
+        return this.trail.overlaps(this.x, this.y, this.diameter, this.trail.size());
+    }
+
+    /**
+     * Benchmark of the loop reading each element by index (see <code>Movement.overlaps</code>).
+     *
+     * @return True if the head hit an element (it should not).
+     */
+    @Benchmark
+    public boolean indexLoop() {
+        for(int i = 0 ; i < this.trail.size() ; i++) {
+            float size = this.trail.getDiameter(i);
+
+            if(Movement.overlaps(this.x, this.y, this.diameter, this.trail.getX(i), this.trail.getY(i), size, size))
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Benchmark of the loop on the <code>RectangularShape</code> view of the body (a new shape by element).
+     *
+     * @return True if the head hit an element (it should not).
+     */
+    @Benchmark
+    public boolean shapeLoop() {
+        for(RectangularShape element : this.trail) {
+            if(element.intersects(this.head.getX(), this.head.getY(), this.head.getWidth(), this.head.getHeight()))
+                return true;
+        }
+
+        return false;
+    }
+}
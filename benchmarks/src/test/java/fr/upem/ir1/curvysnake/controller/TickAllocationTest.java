@@ -0,0 +1,174 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import fr.upem.ir1.curvysnake.controller.exception.CollisionException;
+import fr.upem.ir1.curvysnake.controller.exception.GameSizeException;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.awt.*;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the allocations of a game tick: once the code is warm, a tick must not allocate any byte.
+ * <p>
+ * <p>The arrays storing the bodies still double when they are full, so the ticks are measured by blocks, and only the
+ * blocks where no capacity has changed are checked.</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see Snake#move()
+ */
+public class TickAllocationTest {
+
+    /**
+     * Number of games played before the measure, to let the code be compiled.
+     */
+    private static final int WARM_UP = 20;
+
+    /**
+     * Number of measured blocks.
+     */
+    private static final int BLOCKS = 20;
+
+    /**
+     * Number of ticks of a measured block.
+     */
+    private static final int BLOCK = 50;
+
+    /**
+     * Method to check that a tick of two Snake does not allocate, for each collision mode.
+     *
+     * @throws CollisionException     If a Snake hit a body (it should not).
+     * @throws IllegalAccessException If a bonus can not be affected to a snake.
+     * @throws GameSizeException      If the game size is not set.
+     */
+    @Test
+    public void moveDoesNotAllocate() throws CollisionException, IllegalAccessException, GameSizeException {
+        com.sun.management.ThreadMXBean bean = threadBean();
+        long thread = Thread.currentThread().getId();
+
+        for(CollisionMode mode : CollisionMode.values()) {
+            for(int game = 0 ; game < WARM_UP ; game++) {
+                Snake[] snakes = this.start(mode);
+                for(int block = 0 ; block < BLOCKS ; block++)
+                    tick(snakes, BLOCK);
+            }
+
+            Snake[] snakes = this.start(mode);
+            int checked = 0;
+            for(int block = 0 ; block < BLOCKS ; block++) {
+                long capacity = capacity(snakes);
+                long before = bean.getThreadAllocatedBytes(thread);
+                tick(snakes, BLOCK);
+                long allocated = bean.getThreadAllocatedBytes(thread) - before;
+
+                if(capacity == capacity(snakes)) {
+                    assertEquals(mode + ": bytes allocated by " + BLOCK + " ticks (block " + block + ")", 0,
+                            allocated);
+                    checked++;
+                }
+            }
+
+            assertTrue(mode + ": only " + checked + " blocks without growth", checked >= BLOCKS / 2);
+        }
+    }
+
+    /**
+     * Method to get the bean counting the bytes allocated by a thread (the test is skipped if not supported).
+     *
+     * @return The bean, with the allocation counter enabled.
+     */
+    private static com.sun.management.ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        return threads;
+    }
+
+    /**
+     * Method to create a new game with two Snake, each one on its own line.
+     *
+     * @param mode The collision mode of the game.
+     *
+     * @return The Snake in game.
+     *
+     * @throws GameSizeException If the game size is not set.
+     */
+    private Snake[] start(CollisionMode mode) throws GameSizeException {
+        // Wide enough for all the ticks (3 moves of 5 pixels per tick)
+        World world = new World(new Rectangle(0, 0, 15 * BLOCK * BLOCKS + 1000, 2000), 1);
+        world.setCollisionMode(mode);
+
+        return new Snake[]{new Snake(world, new Point(500, 500), 0), new Snake(world, new Point(500, 1500), 0)};
+    }
+
+    /**
+     * Method to play some ticks: each Snake move once by tick.
+     *
+     * @param snakes The Snake in game.
+     * @param ticks  The number of ticks.
+     *
+     * @throws CollisionException     If a Snake hit a body (it should not).
+     * @throws IllegalAccessException If a bonus can not be affected to a snake.
+     * @throws GameSizeException      If the game size is not set.
+     */
+    private static void tick(Snake[] snakes, int ticks) throws CollisionException, IllegalAccessException,
+            GameSizeException {
+        for(int t = 0 ; t < ticks ; t++) {
+            for(Snake snake : snakes)
+                snake.move();
+        }
+    }
+
+    /**
+     * Method to get the total capacity of the arrays storing the bodies (it changes when one of them is increased).
+     *
+     * @param snakes The Snake in game (all in the same game).
+     *
+     * @return The total capacity.
+     */
+    private static long capacity(Snake[] snakes) {
+        long capacity = 0;
+        for(Snake snake : snakes)
+            capacity += snake.getMove().capacity();
+
+        CollisionIndex index = snakes[0].getWorld().getIndex();
+        if(index instanceof SpatialHash)
+            capacity += ((SpatialHash) index).capacity();
+
+        return capacity;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test of the Vector API kernel: it must give the same result as <code>Movement.overlaps</code> on each element, also
+ * for the heads touching an element at less than one pixel (the lanes kept by the vector filter).
+ * <p>
+ * <p>Only built by the <code>vector</code> profile.</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see TrailVectorKernel
+ */
+public class TrailVectorKernelTest {
+
+    /**
+     * Number of random bodies tested.
+     */
+    private static final int BODIES = 2000;
+
+    /**
+     * Method to check the vector kernel against the exact test of each element, on random bodies whose length is not
+     * always a multiple of the number of lanes, and random parts of their arrays.
+     */
+    @Test
+    public void sameResultAsEachElement() {
+        Random random = new Random(42);
+
+        for(int body = 0 ; body < BODIES ; body++) {
+            int length = random.nextInt(4 * TrailVectorKernel.lanes() + 3);
+            float[] xs = new float[length];
+            float[] ys = new float[length];
+            float[] sizes = new float[length];
+            for(int i = 0 ; i < length ; i++) {
+                xs[i] = random.nextFloat() * 100;
+                ys[i] = random.nextFloat() * 100;
+                sizes[i] = 1 + random.nextFloat() * 10;
+            }
+
+            int from = length == 0 ? 0 : random.nextInt(length);
+            int to = from + (length == from ? 0 : random.nextInt(length - from + 1));
+            float x = random.nextFloat() * 100;
+            float y = random.nextFloat() * 100;
+            float diameter = 1 + random.nextFloat() * 10;
+
+            boolean expected = false;
+            for(int i = from ; i < to ; i++)
+                expected |= Movement.overlaps(x, y, diameter, xs[i], ys[i], sizes[i], sizes[i]);
+
+            assertEquals("body " + body, expected, TrailVectorKernel.overlaps(x, y, diameter, xs, ys, sizes, from, to));
+        }
+    }
+
+    /**
+     * Method to check the vector kernel against the scalar kernel of <code>Trail</code>, for a head moving along a
+     * body (the head hit it or pass just beside it).
+     */
+    @Test
+    public void sameResultAsTrail() {
+        Random random = new Random(7);
+        Trail trail = new Trail();
+        int length = 10 * TrailVectorKernel.lanes() + 1;
+        float[] xs = new float[length];
+        float[] ys = new float[length];
+        float[] sizes = new float[length];
+
+        for(int i = 0 ; i < length ; i++) {
+            xs[i] = 50 + i * 3.7f;
+            ys[i] = 50 + (float) Math.sin(i / 5.0) * 20;
+            sizes[i] = Movement.defaultDiameter;
+            trail.addLast(xs[i], ys[i], sizes[i]);
+        }
+
+        for(int test = 0 ; test < 10000 ; test++) {
+            float x = 40 + random.nextFloat() * length * 3.7f;
+            float y = 20 + random.nextFloat() * 60;
+            float diameter = Movement.defaultDiameter;
+
+            assertEquals("head " + x + ", " + y, trail.overlaps(x, y, diameter, length),
+                    TrailVectorKernel.overlaps(x, y, diameter, xs, ys, sizes, 0, length));
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the Vector API kernel (see <code>TrailVectorKernel</code>) against the scalar kernel of
+ * <code>Trail</code>, on the same bodies as <code>TrailBenchmark</code> (so the results can be read side by side with
+ * the index loop and the <code>RectangularShape</code> loop).
+ * <p>
+ * <p>Only built by the <code>vector</code> profile. The elements are copied in order in three arrays for the vector
+ * kernel.</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see TrailBenchmark
+ * @see TrailVectorKernel
+ */
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TrailVectorBenchmark {
+
+    /**
+     * Distance between two elements of the grid.
+     */
+    private static final int STEP = 20;
+    /**
+     * Number of elements on a row of the grid.
+     */
+    private static final int COLUMNS = 100;
+
+    /**
+     * Number of elements of the body.
+     */
+    @Param({"10", "100", "1000", "10000", "100000"})
+    private int length;
+
+    /**
+     * The measured body.
+     */
+    private Trail trail;
+    /**
+     * Left positions of the elements of the body.
+     */
+    private float[] xs;
+    /**
+     * Top positions of the elements of the body.
+     */
+    private float[] ys;
+    /**
+     * Diameters of the elements of the body.
+     */
+    private float[] sizes;
+
+    /**
+     * Left position of the head.
+     */
+    private float x = 12;
+    /**
+     * Top position of the head.
+     */
+    private float y = 12;
+    /**
+     * Diameter of the head.
+     */
+    private float diameter = 6;
+
+    /**
+     * Method to create a body of <code>length</code> elements (as <code>TrailBenchmark</code>) and its copy in arrays.
+     */
+    @Setup
+    public void setUp() {
+        this.trail = new Trail();
+        for(int i = 0 ; i < this.length ; i++)
+            this.add(i);
+        for(int i = 0 ; i < this.length / 2 ; i++) {
+            this.trail.removeFirst();
+            this.add(i);
+        }
+
+        this.xs = new float[this.length];
+        this.ys = new float[this.length];
+        this.sizes = new float[this.length];
+        for(int i = 0 ; i < this.length ; i++) {
+            this.xs[i] = this.trail.getX(i);
+            this.ys[i] = this.trail.getY(i);
+            this.sizes[i] = this.trail.getDiameter(i);
+        }
+    }
+
+    /**
+     * Method to add an element of the grid to the body.
+     *
+     * @param i The index of the element in the grid.
+     */
+    private void add(int i) {
+        this.trail.addLast(i % COLUMNS * STEP, i / COLUMNS * STEP, Movement.defaultDiameter);
+    }
+
+    /**
+     * Benchmark of the scalar kernel reading the arrays of the body (see <code>Trail.overlaps</code>).
+     *
+     * @return True if the head hit an element (it should not).
+     */
+    @Benchmark
+    public boolean kernel() {
+        return this.trail.overlaps(this.x, this.y, this.diameter, this.trail.size());
+    }
+
+    /**
+     * Benchmark of the Vector API kernel (see <code>TrailVectorKernel.overlaps</code>).
+     *
+     * @return True if the head hit an element (it should not).
+     */
+    @Benchmark
+    public boolean vector() {
+        return TrailVectorKernel.overlaps(this.x, this.y, this.diameter, this.xs, this.ys, this.sizes, 0, this.length);
+    }
+}
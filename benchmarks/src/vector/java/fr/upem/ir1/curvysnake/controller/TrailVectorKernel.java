@@ -0,0 +1,135 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Kernel testing a circle against a contiguous part of the arrays of a body with the Vector API
+ * (<code>jdk.incubator.vector</code>, JDK 16 or later, see the <code>vector</code> profile).
+ * <p>
+ * <p>Each instruction computes, for 8 or 16 elements (the preferred size of the host), the squared distance between
+ * the center of the circle and the nearest point of the element, and compares it with the squared radius of the
+ * circle plus one pixel of margin. The lanes kept by this filter, and the elements left after the last full vector,
+ * are tested exactly by <code>Movement.overlaps</code>: the result is the same as <code>Trail.overlaps</code>.</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see Trail
+ */
+final class TrailVectorKernel {
+
+    /**
+     * Number of elements tested by an instruction.
+     */
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    /**
+     * Class only made of static methods.
+     */
+    private TrailVectorKernel() {
+    }
+
+    /**
+     * Method to get the number of elements tested by an instruction on this host.
+     *
+     * @return The number of lanes of a vector.
+     */
+    static int lanes() {
+        return SPECIES.length();
+    }
+
+    /**
+     * Method to check if a circle intersect an element of a contiguous part of the arrays (same result as
+     * <code>Movement.overlaps</code> for each element).
+     *
+     * @param x        The left position of the circle.
+     * @param y        The top position of the circle.
+     * @param diameter The diameter of the circle.
+     * @param xs       The left positions of the elements.
+     * @param ys       The top positions of the elements.
+     * @param sizes    The diameters of the elements.
+     * @param from     The first position in the arrays (included).
+     * @param to       The last position in the arrays (excluded).
+     *
+     * @return True if the circle intersect one of the elements, false else.
+     */
+    static boolean overlaps(float x, float y, float diameter, float[] xs, float[] ys, float[] sizes, int from,
+                            int to) {
+        if(diameter <= 0)
+            return false;
+
+        float radius = diameter / 2;
+        float cx = x + radius;
+        float cy = y + radius;
+        float near = (radius + 1) * (radius + 1);
+
+        int i = from;
+        for(int bound = from + SPECIES.loopBound(to - from) ; i < bound ; i += SPECIES.length()) {
+            FloatVector ex = FloatVector.fromArray(SPECIES, xs, i);
+            FloatVector ey = FloatVector.fromArray(SPECIES, ys, i);
+            FloatVector size = FloatVector.fromArray(SPECIES, sizes, i);
+
+            // Distance between the center and the nearest point of the element, on each axis
+            FloatVector dx = ex.sub(cx).max(0).add(ex.add(size).neg().add(cx).max(0));
+            FloatVector dy = ey.sub(cy).max(0).add(ey.add(size).neg().add(cy).max(0));
+
+            VectorMask<Float> candidates = dx.mul(dx).add(dy.mul(dy)).compare(VectorOperators.LT, near);
+            for(int lane = candidates.firstTrue() ; lane < SPECIES.length() ; lane++) {
+                if(candidates.laneIsSet(lane) && exact(x, y, diameter, xs, ys, sizes, i + lane))
+                    return true;
+            }
+        }
+
+        for( ; i < to ; i++) {
+            if(exact(x, y, diameter, xs, ys, sizes, i))
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Method to check exactly if a circle intersect an element.
+     *
+     * @param x        The left position of the circle.
+     * @param y        The top position of the circle.
+     * @param diameter The diameter of the circle.
+     * @param xs       The left positions of the elements.
+     * @param ys       The top positions of the elements.
+     * @param sizes    The diameters of the elements.
+     * @param i        The position of the element in the arrays.
+     *
+     * @return True if the circle intersect the element, false else.
+     */
+    private static boolean exact(float x, float y, float diameter, float[] xs, float[] ys, float[] sizes, int i) {
+        return Movement.overlaps(x, y, diameter, xs[i], ys[i], sizes[i], sizes[i]);
+    }
+}
@@ -26,10 +26,20 @@
 
 package fr.upem.ir1.curvysnake;
 
+import fr.upem.ir1.curvysnake.controller.BatchRunner;
+import fr.upem.ir1.curvysnake.controller.Bot;
+import fr.upem.ir1.curvysnake.controller.MatchSpec;
+import fr.upem.ir1.curvysnake.controller.ObstacleMap;
 import fr.upem.ir1.curvysnake.view.MultiPlayer;
 
 import fr.upem.ir1.curvysnake.view.SinglePlayer;
 
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+
 /**
  * 
  * @author Valentin Griset -- Jrmie Collomb -- IR1
@@ -39,10 +49,45 @@ import fr.upem.ir1.curvysnake.view.SinglePlayer;
  */
 public class Main {
 
-    public static void main(String[] args) {
-        if(args.length == 1 && (args[0].equals("multiplayer") || args[0].equals("--multiplayer")))
+    /**
+     * Width (and height) of a cell of a map file (pixel).
+     */
+    private static final int MAP_CELL_SIZE = 20;
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException, IOException {
+        if(args.length >= 1 && (args[0].equals("batch") || args[0].equals("--batch")))
+            batch(args);
+        else if(args.length == 1 && (args[0].equals("multiplayer") || args[0].equals("--multiplayer")))
             MultiPlayer.run();
         else
             SinglePlayer.run();
     }
+
+    /**
+     * Simulate games between random bots, without display, and print the throughput.
+     *
+     * @param args batch [number of games] [number of snakes per game] [map file]
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting for the games.
+     * @throws ExecutionException   If a game failed.
+     * @throws IOException          If the map file can not be read.
+     */
+    private static void batch(String[] args) throws InterruptedException, ExecutionException, IOException {
+        int matches = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int snakes = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+
+        Bot[] bots = new Bot[snakes];
+        Arrays.fill(bots, Bot.RANDOM);
+
+        // The game size is the map size (one map shared by all the games)
+        Rectangle gameSize = new Rectangle(0, 0, 1920, 1080);
+        ObstacleMap obstacles = null;
+        if(args.length > 3) {
+            obstacles = ObstacleMap.load(Paths.get(args[3]), MAP_CELL_SIZE);
+            gameSize.setSize(obstacles.getColumns() * MAP_CELL_SIZE, obstacles.getRows() * MAP_CELL_SIZE);
+        }
+
+        MatchSpec spec = new MatchSpec(gameSize, obstacles, 0, MatchSpec.DEFAULT_MAX_TICKS, bots);
+        System.out.println(new BatchRunner().run(spec, matches));
+    }
 }
@@ -0,0 +1,133 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class representing the report of a batch of simulated games: the result of each game and the throughput.
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see BatchRunner
+ */
+public final class BatchReport {
+
+    /**
+     * The result of each game.
+     */
+    private final List<MatchResult> results;
+    /**
+     * Time to play all the games (nanosecond).
+     */
+    private final long elapsed;
+    /**
+     * Number of ticks played by all the games.
+     */
+    private final long ticks;
+
+    /**
+     * Constructor of a report.
+     *
+     * @param results The result of each game.
+     * @param elapsed The time to play all the games (nanosecond).
+     */
+    BatchReport(List<MatchResult> results, long elapsed) {
+        this.results = Collections.unmodifiableList(results);
+        this.elapsed = Math.max(1, elapsed);
+
+        long ticks = 0;
+        for(MatchResult result : results)
+            ticks += result.getTicks();
+        this.ticks = ticks;
+    }
+
+    /**
+     * Method to get the result of each game.
+     *
+     * @return An unmodifiable list of the results.
+     */
+    public List<MatchResult> getResults() {
+        return this.results;
+    }
+
+    /**
+     * Method to get the number of games played.
+     *
+     * @return The number of games.
+     */
+    public int getMatches() {
+        return this.results.size();
+    }
+
+    /**
+     * Method to get the number of ticks played by all the games.
+     *
+     * @return The number of ticks.
+     */
+    public long getTicks() {
+        return this.ticks;
+    }
+
+    /**
+     * Method to get the time to play all the games.
+     *
+     * @param unit The unit of the time.
+     *
+     * @return The time in the given unit.
+     */
+    public long getElapsed(TimeUnit unit) {
+        return unit.convert(this.elapsed, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Method to get the number of games played per second.
+     *
+     * @return The games throughput.
+     */
+    public double getMatchesPerSecond() {
+        return this.results.size() * 1e9 / this.elapsed;
+    }
+
+    /**
+     * Method to get the number of ticks played per second (all games together).
+     *
+     * @return The ticks throughput.
+     */
+    public double getTicksPerSecond() {
+        return this.ticks * 1e9 / this.elapsed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d matches, %d ticks in %.3f s: %.1f matches/s, %.0f ticks/s", this.getMatches(),
+                             this.ticks, this.elapsed / 1e9, this.getMatchesPerSecond(),
+                             this.getTicksPerSecond());
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import fr.upem.ir1.curvysnake.controller.exception.GameSizeException;
+
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.RectangularShape;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Class to simulate many games, without display, as fast as possible.
+ * <p>
+ * <p>Each game has its own <code>World</code>, so the games are played at the same time on a pool of threads (one
+ * per processor by default). A game is played tick after tick without waiting, until every Snake is dead or the
+ * maximum number of ticks is reached.</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see MatchSpec
+ * @see BatchReport
+ */
+public class BatchRunner {
+
+    /**
+     * Distance between a Snake start position and the border of the game.
+     */
+    private static final int START_MARGIN = 50;
+    /**
+     * Number of tries to find a free start position for a Snake.
+     */
+    private static final int START_TRIES = 100;
+
+    /**
+     * Number of games played at the same time.
+     */
+    private final int parallelism;
+
+    /**
+     * Constructor of a runner playing one game per processor at the same time.
+     */
+    public BatchRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor of a runner.
+     *
+     * @param parallelism The number of games played at the same time.
+     */
+    public BatchRunner(int parallelism) {
+        if(parallelism <= 0)
+            throw new IllegalArgumentException();
+
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Method to play several times the same game, with the seeds <code>spec.getSeed()</code>,
+     * <code>spec.getSeed() + 1</code>...
+     *
+     * @param spec    The description of the game.
+     * @param matches The number of games.
+     *
+     * @return The report of the games.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting for the games.
+     * @throws ExecutionException   If a game failed.
+     */
+    public BatchReport run(MatchSpec spec, int matches) throws InterruptedException, ExecutionException {
+        List<MatchSpec> specs = new ArrayList<>(matches);
+        for(int i = 0 ; i < matches ; i++)
+            specs.add(spec.setSeed(spec.getSeed() + i));
+
+        return this.run(specs);
+    }
+
+    /**
+     * Method to play a list of games.
+     *
+     * @param specs The description of each game.
+     *
+     * @return The report of the games (results in the same order as the descriptions).
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting for the games.
+     * @throws ExecutionException   If a game failed.
+     */
+    public BatchReport run(List<MatchSpec> specs) throws InterruptedException, ExecutionException {
+        List<Callable<MatchResult>> tasks = new ArrayList<>(specs.size());
+        for(MatchSpec spec : specs)
+            tasks.add(() -> play(spec));
+
+        ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        try {
+            long start = System.nanoTime();
+            List<Future<MatchResult>> futures = pool.invokeAll(tasks);
+
+            List<MatchResult> results = new ArrayList<>(futures.size());
+            for(Future<MatchResult> future : futures)
+                results.add(future.get());
+
+            return new BatchReport(results, System.nanoTime() - start);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Method to play a game (in the current thread).
+     *
+     * @param spec The description of the game.
+     *
+     * @return The result of the game.
+     *
+     * @throws IllegalAccessException If a bonus can not be affected to a snake (ex: erase all)
+     * @throws GameSizeException      If the GameSize is not set
+     */
+    public static MatchResult play(MatchSpec spec) throws IllegalAccessException, GameSizeException {
+        GameEngine engine = new GameEngine(spec.getGameSize(), spec.getSeed());
+        SplittableRandom random = engine.getWorld().getPlayerRandom();
+        engine.getWorld().setObstacles(spec.getObstacles());
+
+        for(int i = 0 ; i < spec.size() ; i++)
+            engine.addSnake(startPosition(engine, random), random.nextInt(72) * 5 - 180);
+
+        int[] deathTick = new int[spec.size()];
+        Arrays.fill(deathTick, -1);
+        int[] pickups = new int[BonusAvailable.values().length];
+
+        MoveTo[] inputs = new MoveTo[spec.size()];
+        int tick = 0;
+        while(tick < spec.getMaxTicks() && !engine.isOver()) {
+            for(int i = 0 ; i < inputs.length ; i++)
+                inputs[i] = engine.isAlive(i) ? spec.getBot(i).play(engine, i, tick, random) : null;
+
+            engine.tick(inputs);
+
+            for(int i = 0 ; i < deathTick.length ; i++) {
+                if(deathTick[i] != -1)
+                    continue;
+
+                for(Bonus bonus : engine.getSnake(i).getResult().getBonus()) {
+                    BonusAvailable type = bonus.getType();
+                    if(type != null)
+                        pickups[type.ordinal()]++;
+                }
+
+                if(!engine.isAlive(i))
+                    deathTick[i] = tick;
+            }
+            tick++;
+        }
+
+        return new MatchResult(spec, tick, deathTick, pickups);
+    }
+
+    /**
+     * Method to choose a random start position, far from the border and from the other Snake (if possible).
+     *
+     * @param engine The game.
+     * @param random The random generator of the players of the game.
+     *
+     * @return The start position.
+     */
+    private static Point startPosition(GameEngine engine, SplittableRandom random) {
+        RectangularShape gameSize = engine.getGameSize();
+        int width = Math.max(1, (int) gameSize.getWidth() - 2 * START_MARGIN);
+        int height = Math.max(1, (int) gameSize.getHeight() - 2 * START_MARGIN);
+
+        Point position = new Point();
+        for(int i = 0 ; i < START_TRIES ; i++) {
+            position.x = (int) gameSize.getX() + START_MARGIN + random.nextInt(width);
+            position.y = (int) gameSize.getY() + START_MARGIN + random.nextInt(height);
+
+            if(engine.getWorld().positionIsFree(new Ellipse2D.Float(position.x - START_MARGIN / 2,
+                                                                    position.y - START_MARGIN / 2,
+                                                                    START_MARGIN, START_MARGIN)))
+                break;
+        }
+
+        return position;
+    }
+}
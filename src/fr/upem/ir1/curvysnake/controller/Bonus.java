@@ -18,9 +18,9 @@ import javax.naming.TimeLimitExceededException;
 public class Bonus implements Cloneable {
 
     /**
-     * Default duration of the Bonus.
+     * Default duration of the Bonus (in game tick).
      */
-    private int duration = 7000;
+    private int duration = 280;
 
     /**
      * Speed bonus.
@@ -49,6 +49,11 @@ public class Bonus implements Cloneable {
      */
     private boolean eraseAll = false;
 
+    /**
+     * Type of the Bonus (null if not known yet, or if the Bonus is not one of the types available).
+     */
+    private BonusAvailable type = null;
+
     /**
      * Constructor to avoid Warning.
      */
@@ -71,6 +76,8 @@ public class Bonus implements Cloneable {
         this.inverseDirection = b.inverseDirection;
 
         this.eraseAll = b.eraseAll;
+
+        this.type = b.type;
     }
 
     /**
@@ -261,29 +268,69 @@ public class Bonus implements Cloneable {
         return this;
     }
 
-    public boolean isA(BonusAvailable bonus) {
-        if(speed != bonus.get().speed) return false;
-        if(size != bonus.get().size) return false;
-        if(nextHope != bonus.get().nextHope) return false;
-        if(wallThrough != bonus.get().wallThrough) return false;
-        if(inverseDirection != bonus.get().inverseDirection) return false;
-        return eraseAll == bonus.get().eraseAll;
+    /**
+     * Method to set the type of a Bonus (only used by the types available).
+     *
+     * @param type The type of the Bonus.
+     *
+     * @return The Bonus to offer a chain action.
+     */
+    Bonus setType(BonusAvailable type) {
+        this.type = type;
+
+        return this;
     }
 
-    @Override
-    public boolean equals(Object o) {
-        if(this == o) return true;
-        if(!(o instanceof Bonus)) return false;
+    /**
+     * Method to get the type of a Bonus. The Bonus created by <code>BonusAvailable.get()</code> already know their
+     * type, the others are compared once to each type available.
+     *
+     * @return The type of the Bonus, or null if the Bonus is not one of the types available.
+     */
+    public BonusAvailable getType() {
+        if(this.type == null)
+            this.type = BonusAvailable.typeOf(this);
 
-        Bonus bonus = (Bonus) o;
+        return this.type;
+    }
+
+    /**
+     * Method to check if a Bonus is of a type.
+     *
+     * @param bonus The type.
+     *
+     * @return True if the Bonus is of this type, false else.
+     */
+    public boolean isA(BonusAvailable bonus) {
+        return this.getType() == bonus;
+    }
 
+    /**
+     * Method to check if two Bonus have the same effect (the duration is ignored).
+     *
+     * @param bonus The other Bonus.
+     *
+     * @return True if the effects are the same, false else.
+     */
+    boolean sameEffect(Bonus bonus) {
         if(speed != bonus.speed) return false;
         if(size != bonus.size) return false;
         if(nextHope != bonus.nextHope) return false;
         if(wallThrough != bonus.wallThrough) return false;
         if(inverseDirection != bonus.inverseDirection) return false;
         return eraseAll == bonus.eraseAll;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof Bonus)) return false;
+
+        Bonus bonus = (Bonus) o;
 
+        // Two Bonus of the same type have the same effect
+        if(type != null && type == bonus.type) return true;
+        return sameEffect(bonus);
     }
 
     @Override
@@ -27,7 +27,8 @@
 package fr.upem.ir1.curvysnake.controller;
 
 
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Enum representing a list of Bonus Type. It is offering a List of good and bad Bonus. It is represent by Enum (for
@@ -57,7 +58,7 @@ public enum BonusAvailable {
     /**
      * Bonus creating a hole.
      */
-    NEXT_HOPE(Bonus.nextHope(5).setDuration(50)),
+    NEXT_HOPE(Bonus.nextHope(5).setDuration(2)),
     /**
      * Bonus allowing the Snake to through the different Wall
      */
@@ -97,7 +98,7 @@ public enum BonusAvailable {
      * @param bonus The Bonus associated to the Name (Enum).
      */
     BonusAvailable(Bonus bonus) {
-        this.bonus = bonus;
+        this.bonus = bonus.setType(this);
     }
 
     /**
@@ -109,14 +110,39 @@ public enum BonusAvailable {
         return (Bonus) bonus.clone();
     }
 
+    /**
+     * Method to find the type of a Bonus from its effect.
+     *
+     * @param bonus The Bonus.
+     *
+     * @return The type having the same effect, or null if none.
+     */
+    static BonusAvailable typeOf(Bonus bonus) {
+        for(BonusAvailable type : list) {
+            if(bonus.sameEffect(type.bonus))
+                return type;
+        }
+
+        return null;
+    }
+
     /**
      * Return a random Bonus clone available in the Bonus type list.
      *
      * @return A random Bonus.
      */
     public static Bonus random() {
-        Random r = new Random();
+        return list[ThreadLocalRandom.current().nextInt(list.length)].get();
+    }
 
-        return list[r.nextInt(list.length)].get();
+    /**
+     * Return a random Bonus clone available in the Bonus type list, chosen by a generator of a game.
+     *
+     * @param random The random generator.
+     *
+     * @return A random Bonus.
+     */
+    static Bonus random(SplittableRandom random) {
+        return list[random.nextInt(list.length)].get();
     }
 }
@@ -0,0 +1,151 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+/**
+ * This class represent the effect of all the Bonus active on a Snake (the sum of their attributes).
+ * <p>
+ * <p>The effect is updated only when a Bonus is added or removed, so reading it does not depend on the number of
+ * Bonus active.</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see Snake
+ * @see Bonus
+ */
+class BonusEffect {
+
+    /**
+     * Sum of the speed bonus.
+     */
+    private int speed = 0;
+    /**
+     * Sum of the size bonus.
+     */
+    private int size = 0;
+    /**
+     * Sum of the nextHope bonus.
+     */
+    private int nextHope = 0;
+    /**
+     * Number of wall through bonus.
+     */
+    private int wallThrough = 0;
+    /**
+     * Number of inverse direction bonus.
+     */
+    private int inverseDirection = 0;
+
+    /**
+     * Method to add the attributes of a new active Bonus.
+     *
+     * @param bonus The Bonus (not an erase all).
+     *
+     * @throws IllegalArgumentException If the Bonus is an erase all (it is never active).
+     */
+    void add(Bonus bonus) throws IllegalArgumentException {
+        this.apply(bonus, 1);
+    }
+
+    /**
+     * Method to remove the attributes of a Bonus not active anymore.
+     *
+     * @param bonus The Bonus (previously added).
+     *
+     * @throws IllegalArgumentException If the Bonus is an erase all (it is never active).
+     */
+    void remove(Bonus bonus) throws IllegalArgumentException {
+        this.apply(bonus, -1);
+    }
+
+    /**
+     * Method to add (or remove) the attributes of a Bonus.
+     *
+     * @param bonus The Bonus.
+     * @param sign  1 to add the Bonus, -1 to remove it.
+     *
+     * @throws IllegalArgumentException If the Bonus is an erase all.
+     */
+    private void apply(Bonus bonus, int sign) throws IllegalArgumentException {
+        try {
+            this.speed += sign * bonus.speed();
+            this.size += sign * bonus.size();
+            this.nextHope += sign * bonus.nextHope();
+
+            if(bonus.wallThrough()) this.wallThrough += sign;
+            if(bonus.inverseDirection()) this.inverseDirection += sign;
+        } catch(IllegalAccessException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Method to get the speed of the active Bonus.
+     *
+     * @return The sum of the speed bonus.
+     */
+    int getSpeed() {
+        return this.speed;
+    }
+
+    /**
+     * Method to get the size of the active Bonus.
+     *
+     * @return The sum of the size bonus.
+     */
+    int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Method to get the nextHope of the active Bonus.
+     *
+     * @return The sum of the nextHope bonus.
+     */
+    int getNextHope() {
+        return this.nextHope;
+    }
+
+    /**
+     * Method to know if an active Bonus allow the Snake to through a wall.
+     *
+     * @return True if at least one wall through bonus is active, false else.
+     */
+    boolean isWallThrough() {
+        return this.wallThrough > 0;
+    }
+
+    /**
+     * Method to know if the direction is inverted by the active Bonus. Each inverse direction bonus inverse the
+     * previous ones.
+     *
+     * @return True if an odd number of inverse direction bonus is active, false else.
+     */
+    boolean isInverseDirection() {
+        return this.inverseDirection % 2 != 0;
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import java.awt.geom.RectangularShape;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class represent a uniform grid of the Bonus in game, to find the Bonus hit by a head.
+ * <p>
+ * <p>Each Bonus is stored in every cell covered by its bounds. As in <code>SpatialHash</code>, a cell is not allocated:
+ * its coordinates are hashed into a fixed number of buckets, and the Bonus are stored in primitive arrays linked by
+ * index through a <code>NodePool</code>. A head only visits the few buckets it covers, whatever the number of Bonus in
+ * game.</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see BonusListInGame
+ */
+class BonusGrid {
+
+    /**
+     * Number of buckets (power of two).
+     */
+    private static final int BUCKETS = 1 << 8;
+    /**
+     * Marker of the end of a bucket chain.
+     */
+    private static final int NONE = NodePool.NONE;
+
+    /**
+     * Width (and height) of a cell.
+     */
+    private final int cellSize;
+    /**
+     * First node of each bucket.
+     */
+    private final int[] bucket = new int[BUCKETS];
+
+    /**
+     * Pool of the nodes (linked in the buckets).
+     */
+    private final NodePool pool;
+    /**
+     * Bonus of the node.
+     */
+    private final List<Entry<RectangularShape, Bonus>> entry = new ArrayList<>();
+    /**
+     * Cell x coordinate of the node.
+     */
+    private int[] cellX;
+    /**
+     * Cell y coordinate of the node.
+     */
+    private int[] cellY;
+    /**
+     * First cell x coordinate covered by the Bonus of the node.
+     */
+    private int[] firstX;
+    /**
+     * First cell y coordinate covered by the Bonus of the node.
+     */
+    private int[] firstY;
+
+    /**
+     * Constructor of the grid.
+     *
+     * @param cellSize The width (and height) of a cell.
+     */
+    BonusGrid(int cellSize) {
+        if(cellSize <= 0)
+            throw new IllegalArgumentException();
+
+        this.cellSize = cellSize;
+        Arrays.fill(this.bucket, NONE);
+
+        this.pool = new NodePool(64, this::allocate);
+    }
+
+    /**
+     * Method to add a Bonus to the grid.
+     *
+     * @param bonus The Bonus associated to its position.
+     */
+    void insert(Entry<RectangularShape, Bonus> bonus) {
+        RectangularShape position = bonus.getKey();
+        int minX = this.cell(position.getX());
+        int minY = this.cell(position.getY());
+        int maxX = this.cell(position.getX() + position.getWidth());
+        int maxY = this.cell(position.getY() + position.getHeight());
+
+        for(int cx = minX ; cx <= maxX ; cx++) {
+            for(int cy = minY ; cy <= maxY ; cy++) {
+                int node = this.pool.node();
+                int b = NodePool.hash(cx, cy, BUCKETS);
+
+                this.entry.set(node, bonus);
+                this.cellX[node] = cx;
+                this.cellY[node] = cy;
+                this.firstX[node] = minX;
+                this.firstY[node] = minY;
+
+                this.pool.link(node, this.bucket[b]);
+                this.bucket[b] = node;
+            }
+        }
+    }
+
+    /**
+     * Method to remove a Bonus from the grid.
+     *
+     * @param bonus The Bonus associated to its position (as when inserted).
+     */
+    void remove(Entry<RectangularShape, Bonus> bonus) {
+        RectangularShape position = bonus.getKey();
+        int minX = this.cell(position.getX());
+        int minY = this.cell(position.getY());
+        int maxX = this.cell(position.getX() + position.getWidth());
+        int maxY = this.cell(position.getY() + position.getHeight());
+
+        for(int cx = minX ; cx <= maxX ; cx++) {
+            for(int cy = minY ; cy <= maxY ; cy++) {
+                int b = NodePool.hash(cx, cy, BUCKETS);
+
+                int previous = NONE;
+                for(int node = this.bucket[b] ; node != NONE ; node = this.pool.next(node)) {
+                    if(this.entry.get(node) == bonus && this.cellX[node] == cx && this.cellY[node] == cy) {
+                        if(previous == NONE) this.bucket[b] = this.pool.next(node);
+                        else this.pool.link(previous, this.pool.next(node));
+
+                        this.release(node);
+                        break;
+                    }
+                    previous = node;
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to find the Bonus intersecting a rectangle (the bounds of a head). Each Bonus is found once, in the first
+     * cell shared by the Bonus and the rectangle.
+     *
+     * @param x      The left position of the rectangle.
+     * @param y      The top position of the rectangle.
+     * @param width  The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @param found  The list receiving the Bonus found.
+     */
+    void intersecting(int x, int y, int width, int height, List<Entry<RectangularShape, Bonus>> found) {
+        int minX = this.cell(x);
+        int minY = this.cell(y);
+        int maxX = this.cell(x + width);
+        int maxY = this.cell(y + height);
+
+        for(int cx = minX ; cx <= maxX ; cx++) {
+            for(int cy = minY ; cy <= maxY ; cy++) {
+                int b = NodePool.hash(cx, cy, BUCKETS);
+                for(int node = this.bucket[b] ; node != NONE ; node = this.pool.next(node)) {
+                    // Another cell in the same bucket, or a Bonus already found in a previous cell
+                    if(this.cellX[node] != cx || this.cellY[node] != cy)
+                        continue;
+                    if(cx != Math.max(this.firstX[node], minX) || cy != Math.max(this.firstY[node], minY))
+                        continue;
+
+                    if(this.entry.get(node).getKey().intersects(x, y, width, height))
+                        found.add(this.entry.get(node));
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to get the cell coordinate of a position.
+     *
+     * @param position The position (x or y).
+     *
+     * @return The cell coordinate.
+     */
+    private int cell(double position) {
+        return NodePool.cell(position, this.cellSize);
+    }
+
+    /**
+     * Method to give back a node to the free list.
+     *
+     * @param node The node index.
+     */
+    private void release(int node) {
+        this.entry.set(node, null);
+        this.pool.release(node);
+    }
+
+    /**
+     * Method to increase the arrays of the nodes with the pool.
+     *
+     * @param capacity The new capacity of the pool.
+     */
+    private void allocate(int capacity) {
+        while(this.entry.size() < capacity)
+            this.entry.add(null);
+
+        if(this.cellX == null) {
+            this.cellX = new int[capacity];
+            this.cellY = new int[capacity];
+            this.firstX = new int[capacity];
+            this.firstY = new int[capacity];
+            return;
+        }
+
+        this.cellX = Arrays.copyOf(this.cellX, capacity);
+        this.cellY = Arrays.copyOf(this.cellY, capacity);
+        this.firstX = Arrays.copyOf(this.firstX, capacity);
+        this.firstY = Arrays.copyOf(this.firstY, capacity);
+    }
+}
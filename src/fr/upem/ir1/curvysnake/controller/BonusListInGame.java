@@ -1,10 +1,14 @@
 package fr.upem.ir1.curvysnake.controller;
 
+import fr.upem.ir1.curvysnake.controller.exception.GameSizeException;
+
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.RectangularShape;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.Random;
+import java.util.List;
+import java.util.SplittableRandom;
 import java.util.function.Consumer;
 
 /**
@@ -21,18 +25,50 @@ public class BonusListInGame {
     /**
      * List of Bonus associated to an Rectangle
      */
-    private final LinkedList<Entry<RectangularShape, Bonus>> bonusPosition;
+    private final ArrayList<Entry<RectangularShape, Bonus>> bonusPosition;
+    /**
+     * Grid of the Bonus positions, to find the Bonus hit by a head.
+     */
+    private final BonusGrid grid;
+    /**
+     * The game of the Bonus (game size and Snake in game).
+     */
+    private final World world;
+    /**
+     * Maximum number of Bonus in game at the same time.
+     */
+    private int capacity = DEFAULT_CAPACITY;
+    /**
+     * Average number of ticks between two new Bonus.
+     */
+    private double spawnPeriod = DEFAULT_SPAWN_PERIOD;
+    /**
+     * Tick of the next new Bonus (-1 if not chosen yet).
+     */
+    private long nextSpawn = -1;
 
     /**
      * Default size of the radius action
      */
-    private final static int DEFAULT_DIAMETER = Movement.defaultDiameter * 5;
+    final static int DEFAULT_DIAMETER = Movement.defaultDiameter * 5;
+    /**
+     * Default maximum number of Bonus in game at the same time.
+     */
+    public final static int DEFAULT_CAPACITY = 10;
+    /**
+     * Default average number of ticks between two new Bonus.
+     */
+    public final static double DEFAULT_SPAWN_PERIOD = 40;
 
     /**
-     * Constructor by default to avoid warning..
+     * Constructor of the (empty) Bonus list of a game.
+     *
+     * @param world The game of the Bonus.
      */
-    public BonusListInGame() {
-        this.bonusPosition = new LinkedList<>();
+    BonusListInGame(World world) {
+        this.bonusPosition = new ArrayList<>();
+        this.grid = new BonusGrid(DEFAULT_DIAMETER);
+        this.world = world;
     }
 
     /**
@@ -42,6 +78,11 @@ public class BonusListInGame {
      */
     public BonusListInGame(BonusListInGame b) {
         this.bonusPosition = b.bonusPosition;
+        this.grid = b.grid;
+        this.world = b.world;
+        this.capacity = b.capacity;
+        this.spawnPeriod = b.spawnPeriod;
+        this.nextSpawn = b.nextSpawn;
     }
 
     /**
@@ -51,34 +92,138 @@ public class BonusListInGame {
      * @param bonus    Bonus at the position
      */
     public void add(RectangularShape position, Bonus bonus) {
-        this.bonusPosition.add(new Entry<>(position, bonus));
+        Entry<RectangularShape, Bonus> entry = new Entry<>(position, bonus);
+
+        this.bonusPosition.add(entry);
+        this.grid.insert(entry);
+        this.world.occupy(position, 1);
+    }
+
+    /**
+     * Method to get the maximum number of Bonus in game at the same time.
+     *
+     * @return The maximum number of Bonus.
+     */
+    public int getCapacity() {
+        return this.capacity;
     }
 
     /**
-     * Generate a random position and a random Bonus into the list of available Bonus.
+     * Method to set the maximum number of Bonus in game at the same time (used by <code>random()</code>). The Bonus
+     * already in game are kept.
      *
-     * @return The position of the new Bonus
+     * @param capacity The maximum number of Bonus.
+     *
+     * @throws IllegalArgumentException If the capacity is negative.
      */
-    public Entry<RectangularShape, Bonus> random() {
-        Random r = new Random();
+    public void setCapacity(int capacity) throws IllegalArgumentException {
+        if(capacity < 0)
+            throw new IllegalArgumentException();
+
+        this.capacity = capacity;
+    }
 
-        if(r.nextInt(1000) != 48 || this.bonusPosition.size() >= 10)
+    /**
+     * Method to get the average number of ticks between two new Bonus.
+     *
+     * @return The average number of ticks.
+     */
+    public double getSpawnPeriod() {
+        return this.spawnPeriod;
+    }
+
+    /**
+     * Method to set the average number of ticks between two new Bonus (used by <code>random()</code>). The tick of the
+     * next Bonus is chosen again.
+     *
+     * @param spawnPeriod The average number of ticks (1 to add a Bonus every tick).
+     *
+     * @throws IllegalArgumentException If the period is lower than one tick.
+     */
+    public void setSpawnPeriod(double spawnPeriod) throws IllegalArgumentException {
+        if(!(spawnPeriod >= 1))
+            throw new IllegalArgumentException();
+
+        this.spawnPeriod = spawnPeriod;
+        this.reschedule();
+    }
+
+    /**
+     * Method to forget the tick of the next Bonus: it is chosen again by the next call of <code>random()</code>.
+     */
+    void reschedule() {
+        this.nextSpawn = -1;
+    }
+
+    /**
+     * Method to choose the tick of the next Bonus. The number of ticks until the next Bonus follow a geometric law:
+     * the same as a new Bonus added with a probability of 1 / <code>spawnPeriod</code> at each tick, but only one
+     * random number is drawn by Bonus.
+     *
+     * @param r The random generator.
+     */
+    private void schedule(SplittableRandom r) {
+        long wait = 1;
+        if(this.spawnPeriod > 1) {
+            double u = 1 - r.nextDouble();
+            wait += (long) Math.floor(Math.log(u) / Math.log(1 - 1 / this.spawnPeriod));
+        }
+
+        this.nextSpawn = this.world.getTick() + wait;
+    }
+
+    /**
+     * Generate a random position and a random Bonus into the list of available Bonus. It is called once per game
+     * tick, and add a Bonus once every <code>getSpawnPeriod()</code> ticks (on average). The tick of the next Bonus is
+     * chosen in advance, so nothing is done by the ticks in between, and calling the method several times by tick does
+     * not change the rate.
+     * <p>
+     * <p>The position is chosen at random among the free cells of the game board (see <code>FreeCells</code>), in a
+     * constant time. If no cell is free, no Bonus is added.</p>
+     *
+     * @return The position of the new Bonus, or null if no Bonus is added (or no room is left, see
+     * <code>hasRoom()</code>).
+     *
+     * @throws GameSizeException If the GameSize is not set
+     */
+    public Entry<RectangularShape, Bonus> random() throws GameSizeException {
+        if(this.world.getGameSize() == null)
+            throw new GameSizeException();
+
+        if(this.nextSpawn < 0) {
+            this.schedule(this.world.getSpawnRandom());
+            return null;
+        }
+        if(this.world.getTick() < this.nextSpawn)
             return null;
 
-        int x;
-        int y;
-        RectangularShape position;
+        SplittableRandom r = this.world.getSpawnRandom();
+        this.schedule(r);
 
-        do {
-            x = r.nextInt((int) Snake.getGameSize().getWidth() - DEFAULT_DIAMETER) + (int) Snake.getGameSize().getX();
-            y = r.nextInt((int) Snake.getGameSize().getHeight() - DEFAULT_DIAMETER) + (int) Snake.getGameSize().getY();
+        if(this.bonusPosition.size() >= this.capacity)
+            return null;
+
+        FreeCells freeCells = this.world.getFreeCells();
+        int cell = freeCells.sample(r);
+        if(cell < 0)
+            return null;
+
+        RectangularShape position = new Ellipse2D.Float(freeCells.getX(cell), freeCells.getY(cell), DEFAULT_DIAMETER,
+                                                        DEFAULT_DIAMETER);
+
+        this.add(position, BonusAvailable.random(this.world.getBonusRandom()));
+        return (Entry<RectangularShape, Bonus>) this.bonusPosition.get(this.bonusPosition.size() - 1).clone();
+    }
 
-            position = new Ellipse2D.Float(x, y, DEFAULT_DIAMETER, DEFAULT_DIAMETER);
-        } while(this.intersects(position) || !Snake.getGameSize().intersects(position.getBounds2D()) ||
-                        !Snake.positionIsFree(position));
+    /**
+     * Method to know if a new Bonus can be added (a cell of the game board is free).
+     *
+     * @return True if a free place is left, false else (or if the game size is not set).
+     */
+    public boolean hasRoom() {
+        FreeCells freeCells = this.world.getFreeCells();
 
-        this.add(position, BonusAvailable.random());
-        return (Entry<RectangularShape, Bonus>) this.bonusPosition.getLast().clone();
+        return freeCells != null && freeCells.size() > 0;
     }
 
     /**
@@ -98,10 +243,78 @@ public class BonusListInGame {
     }
 
     /**
-     * Itertor method to create an iterator on the List of Bonus
+     * Method to get the number of Bonus in game.
+     *
+     * @return The number of Bonus.
+     */
+    public int size() {
+        return this.bonusPosition.size();
+    }
+
+    /**
+     * Method to get a Bonus in game (without creating an iterator).
+     *
+     * @param i The index of the Bonus.
+     *
+     * @return The Bonus associated to its position.
+     */
+    public Entry<RectangularShape, Bonus> get(int i) {
+        return this.bonusPosition.get(i);
+    }
+
+    /**
+     * Method to remove a Bonus from the game.
+     *
+     * @param i The index of the Bonus.
+     *
+     * @return The Bonus removed, associated to its position.
+     */
+    public Entry<RectangularShape, Bonus> remove(int i) {
+        Entry<RectangularShape, Bonus> entry = this.bonusPosition.remove(i);
+        this.grid.remove(entry);
+        this.world.occupy(entry.getKey(), -1);
+
+        return entry;
+    }
+
+    /**
+     * Method to remove a Bonus from the game.
+     *
+     * @param entry The Bonus associated to its position (as returned by <code>get(int)</code>).
+     *
+     * @return True if the Bonus was in game, false else.
+     */
+    public boolean remove(Entry<RectangularShape, Bonus> entry) {
+        for(int i = 0 ; i < this.bonusPosition.size() ; i++) {
+            if(this.bonusPosition.get(i) == entry) {
+                this.remove(i);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Method to find the Bonus intersecting a rectangle (the bounds of a head). Only the Bonus stored in the cells
+     * covered by the rectangle are tested.
+     *
+     * @param x      The left position of the rectangle.
+     * @param y      The top position of the rectangle.
+     * @param width  The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @param found  The list receiving the Bonus found.
+     */
+    void intersecting(int x, int y, int width, int height, List<Entry<RectangularShape, Bonus>> found) {
+        this.grid.intersecting(x, y, width, height, found);
+    }
+
+    /**
+     * Itertor method to create an iterator on the List of Bonus (read only: use <code>remove(int)</code> to remove a
+     * Bonus, so its place is free again).
      * @return
      */
     public Iterator<Entry<RectangularShape, Bonus>> iterator() {
-        return this.bonusPosition.iterator();
+        return Collections.unmodifiableList(this.bonusPosition).iterator();
     }
 }
@@ -0,0 +1,218 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import java.util.Arrays;
+
+/**
+ * This class represent the end of the Bonus active on the Snake of a game (a hierarchical timing wheel).
+ * <p>
+ * <p>The time is counted in game ticks. A Bonus is stored in a slot of a wheel, given by its end tick: the first wheel
+ * has a slot by tick, the second a slot by 64 ticks, and so on. When a tick is done, the slot of the first wheel is
+ * emptied and its Bonus end. At the start of a slot of an upper wheel, its Bonus are moved to a lower wheel.</p>
+ * <p>
+ * <p>A tick where no Bonus end (and no slot must be moved) only read one empty slot. The Bonus are stored in primitive
+ * arrays linked by index through a <code>NodePool</code>, so no object is created once the pool is big enough.</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see World#decrementAll()
+ */
+class BonusTimer {
+
+    /**
+     * Number of bits of a slot index (64 slots by wheel).
+     */
+    private static final int BITS = 6;
+    /**
+     * Number of slots by wheel.
+     */
+    private static final int SLOTS = 1 << BITS;
+    /**
+     * Number of wheels (about 16 millions of ticks).
+     */
+    private static final int LEVELS = 4;
+    /**
+     * Number of ticks covered by all the wheels. A later end is stored at the last tick covered, and moved again.
+     */
+    private static final long RANGE = 1L << (BITS * LEVELS);
+    /**
+     * Marker of the end of a slot chain.
+     */
+    private static final int NONE = NodePool.NONE;
+
+    /**
+     * First node of each slot (wheel by wheel).
+     */
+    private final int[] slot = new int[LEVELS * SLOTS];
+
+    /**
+     * Pool of the nodes (linked in the slots).
+     */
+    private final NodePool pool;
+    /**
+     * Snake owning the Bonus.
+     */
+    private Snake[] snake;
+    /**
+     * Bonus ending.
+     */
+    private Bonus[] bonus;
+    /**
+     * End tick of the Bonus.
+     */
+    private long[] end;
+    /**
+     * Actual tick.
+     */
+    private long tick = 0;
+
+    /**
+     * Constructor of the timer, at the tick 0.
+     */
+    BonusTimer() {
+        Arrays.fill(this.slot, NONE);
+
+        this.pool = new NodePool(64, this::allocate);
+    }
+
+    /**
+     * Method to get the actual tick.
+     *
+     * @return The number of ticks done.
+     */
+    long getTick() {
+        return this.tick;
+    }
+
+    /**
+     * Method to add a Bonus active on a Snake, until a number of ticks are done.
+     *
+     * @param snake    The Snake owning the Bonus.
+     * @param bonus    The Bonus.
+     * @param duration The duration of the Bonus (in ticks, at least one).
+     */
+    void schedule(Snake snake, Bonus bonus, int duration) {
+        int node = this.pool.node();
+
+        this.snake[node] = snake;
+        this.bonus[node] = bonus;
+        this.end[node] = this.tick + Math.max(1, duration);
+
+        this.place(node);
+    }
+
+    /**
+     * Method to do a tick: the Bonus ending at this tick are removed from their Snake.
+     */
+    void advance() {
+        this.tick++;
+
+        // Move the Bonus of the upper wheels starting a slot, from the top
+        for(int level = LEVELS - 1 ; level > 0 ; level--) {
+            if((this.tick & ((1L << (BITS * level)) - 1)) == 0)
+                this.cascade(level);
+        }
+
+        int s = (int) (this.tick & (SLOTS - 1));
+        int node = this.slot[s];
+        this.slot[s] = NONE;
+
+        while(node != NONE) {
+            int following = this.pool.next(node);
+
+            this.snake[node].expire(this.bonus[node]);
+            this.release(node);
+
+            node = following;
+        }
+    }
+
+    /**
+     * Method to move the Bonus of the actual slot of a wheel to the lower wheels.
+     *
+     * @param level The wheel.
+     */
+    private void cascade(int level) {
+        int s = level * SLOTS + (int) ((this.tick >>> (BITS * level)) & (SLOTS - 1));
+        int node = this.slot[s];
+        this.slot[s] = NONE;
+
+        while(node != NONE) {
+            int following = this.pool.next(node);
+            this.place(node);
+            node = following;
+        }
+    }
+
+    /**
+     * Method to store a node in the slot of its end tick.
+     *
+     * @param node The node index.
+     */
+    private void place(int node) {
+        long end = Math.min(this.end[node], this.tick + RANGE - 1);
+        long delta = end - this.tick;
+
+        int level = 0;
+        while(level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1)))
+            level++;
+
+        int s = level * SLOTS + (int) ((end >>> (BITS * level)) & (SLOTS - 1));
+        this.pool.link(node, this.slot[s]);
+        this.slot[s] = node;
+    }
+
+    /**
+     * Method to give back a node to the free list.
+     *
+     * @param node The node index.
+     */
+    private void release(int node) {
+        this.snake[node] = null;
+        this.bonus[node] = null;
+        this.pool.release(node);
+    }
+
+    /**
+     * Method to increase the arrays of the nodes with the pool.
+     *
+     * @param capacity The new capacity of the pool.
+     */
+    private void allocate(int capacity) {
+        if(this.snake == null) {
+            this.snake = new Snake[capacity];
+            this.bonus = new Bonus[capacity];
+            this.end = new long[capacity];
+            return;
+        }
+
+        this.snake = Arrays.copyOf(this.snake, capacity);
+        this.bonus = Arrays.copyOf(this.bonus, capacity);
+        this.end = Arrays.copyOf(this.end, capacity);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import java.util.SplittableRandom;
+
+/**
+ * Interface representing a player without user: it choose the action of a Snake at each tick of a game.
+ * <p>
+ * <p>A Bot is shared by all the games using the same <code>MatchSpec</code> (maybe at the same time): it must not
+ * keep any state. The random generator of the players of the game (split from the seed of its World) is given to
+ * it.</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see MatchSpec
+ */
+@FunctionalInterface
+public interface Bot {
+
+    /**
+     * Bot which never turn.
+     */
+    Bot STRAIGHT = (engine, snake, tick, random) -> null;
+
+    /**
+     * Bot which turn randomly (one tick out of five, on average).
+     */
+    Bot RANDOM = (engine, snake, tick, random) -> {
+        int choice = random.nextInt(10);
+        if(choice == 0)
+            return MoveTo.LEFT;
+        if(choice == 1)
+            return MoveTo.RIGHT;
+        return null;
+    };
+
+    /**
+     * Method to choose the action of a Snake for a tick.
+     *
+     * @param engine The game (read only).
+     * @param snake  The Snake index in the game.
+     * @param tick   The tick number (from 0).
+     * @param random The random generator of the players of the game.
+     *
+     * @return The action of the Snake, or null to keep the direction.
+     */
+    MoveTo play(GameEngine engine, int snake, int tick, SplittableRandom random);
+
+    /**
+     * Method to create a Bot playing a script: one action (or null) per tick. The script is repeated.
+     *
+     * @param moves The actions of the script.
+     *
+     * @return The new Bot.
+     */
+    static Bot script(MoveTo... moves) {
+        if(moves.length == 0)
+            return STRAIGHT;
+
+        MoveTo[] script = moves.clone();
+        return (engine, snake, tick, random) -> script[tick % script.length];
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+/**
+ * Interface of a structure storing all the body elements in game, to detect the collisions between a head and a
+ * body (another or itself).
+ * <p>
+ * <p>A body element is identified by its owner body and its index in this body (see <code>Movement</code>).</p>
+ * <p>
+ * <p>The tests can be done by several threads at the same time, as long as no element is added or removed.</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see CollisionMode
+ */
+interface CollisionIndex {
+
+    /**
+     * Method to add a body element.
+     *
+     * @param body     The body owning the element.
+     * @param i        The index of the element in the body.
+     * @param x        The left position of the element.
+     * @param y        The top position of the element.
+     * @param diameter The diameter of the element.
+     */
+    void insert(Movement body, long i, float x, float y, float diameter);
+
+    /**
+     * Method to remove a body element.
+     *
+     * @param body     The body owning the element.
+     * @param i        The index of the element in the body.
+     * @param x        The left position of the element (as when inserted).
+     * @param y        The top position of the element (as when inserted).
+     * @param diameter The diameter of the element (as when inserted).
+     */
+    void remove(Movement body, long i, float x, float y, float diameter);
+
+    /**
+     * Method to check if a head hit a body element.
+     * <p>
+     * <p>The last elements of the body owning the head are ignored (as many as the head width), else the head would
+     * always hit its own neck. The head may be not added yet (a planned head), its index is then after the last
+     * element of the body.</p>
+     *
+     * @param body     The body owning the head.
+     * @param x        The left position of the head.
+     * @param y        The top position of the head.
+     * @param diameter The diameter of the head.
+     * @param last     The index of the head in its body.
+     *
+     * @return True if the head hit a body element, false else.
+     */
+    boolean intersects(Movement body, float x, float y, float diameter, long last);
+
+    /**
+     * Method to visit the elements of a body which may cover a rectangle (their bounds intersect it). An element may
+     * be visited more than once.
+     *
+     * @param body    The body owning the elements.
+     * @param x       The left position of the rectangle.
+     * @param y       The top position of the rectangle.
+     * @param width   The width of the rectangle.
+     * @param height  The height of the rectangle.
+     * @param visitor The action done on each element.
+     */
+    void forEach(Movement body, double x, double y, double width, double height, ElementVisitor visitor);
+
+    /**
+     * Method to remove all the body elements at once (used by an erase all, see <code>World.cleanAll</code>).
+     */
+    void clear();
+}
@@ -0,0 +1,111 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import fr.upem.ir1.curvysnake.controller.exception.GameSizeException;
+
+import java.awt.geom.RectangularShape;
+import java.util.List;
+
+/**
+ * Enum representing the list of collision detection available for a game. LIST_SCAN and SPATIAL_HASH detect exactly the
+ * same collisions (the exact test between two circles), with a different cost. RASTER is an approximation at the pixel
+ * level, so a game may end differently with it.
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see World#setCollisionMode(CollisionMode)
+ */
+public enum CollisionMode {
+    /**
+     * Test the head with every body element of every Snake.
+     */
+    LIST_SCAN,
+    /**
+     * Test the head only with the body elements stored in the cells of a grid covered by the head.
+     */
+    SPATIAL_HASH,
+    /**
+     * Test the pixels covered by the head in a picture of the game where every body element is drawn.
+     * <p>
+     * <p>An element covers a pixel when it contains the pixel center: two elements touching between two pixel
+     * centers do not collide, and two elements sharing a pixel center without touching do.</p>
+     */
+    RASTER;
+
+    /**
+     * Method to create a new (empty) collision structure of this type.
+     *
+     * @param world The game using the structure.
+     *
+     * @return The new collision structure.
+     *
+     * @throws GameSizeException If the GameSize is needed and not set.
+     */
+    CollisionIndex create(World world) throws GameSizeException {
+        switch(this) {
+            case LIST_SCAN:
+                return new CollisionIndex() {
+                    @Override
+                    public void insert(Movement body, long i, float x, float y, float diameter) {
+                    }
+
+                    @Override
+                    public void remove(Movement body, long i, float x, float y, float diameter) {
+                    }
+
+                    @Override
+                    public boolean intersects(Movement body, float x, float y, float diameter, long last) {
+                        List<Snake> snakes = world.getSnakeList();
+                        for(int i = 0 ; i < snakes.size() ; i++) {
+                            if(body.intersects(x, y, diameter, last, snakes.get(i).getMove()))
+                                return true;
+                        }
+
+                        return false;
+                    }
+
+                    @Override
+                    public void forEach(Movement body, double x, double y, double width, double height,
+                                        ElementVisitor visitor) {
+                        body.getMove().forEach(x, y, width, height, visitor);
+                    }
+
+                    @Override
+                    public void clear() {
+                    }
+                };
+            case RASTER:
+                if(world.getGameSize() == null)
+                    throw new GameSizeException();
+
+                return new OccupancyRaster(world.getGameSize());
+            default:
+                return new SpatialHash(Movement.defaultDiameter);
+        }
+    }
+}
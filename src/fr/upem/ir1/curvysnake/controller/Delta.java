@@ -0,0 +1,134 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import java.awt.geom.RectangularShape;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class representing the changes of the game during one tick of a <code>GameEngine</code>.
+ * <p>
+ * <p>The lists are reused by the engine: they are only valid until the next tick.</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see GameEngine
+ */
+public class Delta {
+
+    /**
+     * List of element added to each Snake body (by Snake index).
+     */
+    private final List<List<RectangularShape>> added = new ArrayList<>();
+    /**
+     * List of element erased from the game (Snake body or Bonus).
+     */
+    private final List<RectangularShape> erased = new ArrayList<>();
+    /**
+     * The Bonus appeared during the tick (or null).
+     */
+    private Entry<RectangularShape, Bonus> bonus = null;
+    /**
+     * An erase all was done during the tick (the bodies erased are not listed).
+     */
+    private boolean cleared = false;
+
+    /**
+     * Method to get the elements added to a Snake body.
+     *
+     * @param snake The Snake index in the engine.
+     *
+     * @return The list of element added.
+     */
+    public List<RectangularShape> getAdded(int snake) {
+        return this.added.get(snake);
+    }
+
+    /**
+     * Method to get the elements erased from the game (Snake body or Bonus).
+     *
+     * @return The list of element erased.
+     */
+    public List<RectangularShape> getErased() {
+        return this.erased;
+    }
+
+    /**
+     * Method to get the Bonus appeared during the tick.
+     *
+     * @return The Bonus associated to its position, or null if no Bonus appeared.
+     */
+    public Entry<RectangularShape, Bonus> getBonus() {
+        return this.bonus;
+    }
+
+    /**
+     * Method to set the Bonus appeared during the tick.
+     *
+     * @param bonus The Bonus associated to its position (or null).
+     */
+    void setBonus(Entry<RectangularShape, Bonus> bonus) {
+        this.bonus = bonus;
+    }
+
+    /**
+     * Method to know if an erase all was done during the tick. The bodies erased are not in <code>getErased()</code>:
+     * the whole game board must be drawn again from the elements still in game.
+     *
+     * @return True if an erase all was done, false else.
+     */
+    public boolean isCleared() {
+        return this.cleared;
+    }
+
+    /**
+     * Method to set if an erase all was done during the tick.
+     *
+     * @param cleared True if an erase all was done.
+     */
+    void setCleared(boolean cleared) {
+        this.cleared = cleared;
+    }
+
+    /**
+     * Method to add the list of a new Snake.
+     */
+    void addSnake() {
+        this.added.add(new ArrayList<>());
+    }
+
+    /**
+     * Method to clear all the changes, before a new tick.
+     */
+    void clear() {
+        this.added.forEach(List::clear);
+        this.erased.clear();
+        this.bonus = null;
+        this.cleared = false;
+    }
+}
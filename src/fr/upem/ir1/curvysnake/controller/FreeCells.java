@@ -0,0 +1,334 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import java.awt.geom.RectangularShape;
+import java.util.SplittableRandom;
+
+/**
+ * This class represent a coarse grid of the game board, used to find a free place for a new Bonus.
+ * <p>
+ * <p>Each cell count the elements (Snake body elements and Bonus) covering it, updated each time an element is added
+ * or removed. The free cells are also stored in an array (the position of each cell in this array is kept), so a free
+ * cell is added, removed or chosen at random in a constant time.</p>
+ * <p>
+ * <p>The static obstacles are counted once, in a baseline of the grid. Each cell and each place of the free cells is
+ * tagged with the generation of the grid when it was written: removing all the elements (except the obstacles) only
+ * starts a new generation, and the cells and places of an older generation are read from the baseline.</p>
+ * <p>
+ * <p>Only the cells fully inside the game board are used.</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see BonusListInGame#random()
+ */
+class FreeCells {
+
+    /**
+     * Marker of a cell not free.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * Left border of the grid.
+     */
+    private final double originX;
+    /**
+     * Top border of the grid.
+     */
+    private final double originY;
+    /**
+     * Width (and height) of a cell.
+     */
+    private final int cellSize;
+    /**
+     * Number of cells on a line.
+     */
+    private final int columns;
+    /**
+     * Number of lines.
+     */
+    private final int rows;
+    /**
+     * Number of obstacles covering each cell (line by line), in the baseline.
+     */
+    private final int[] baseCount;
+    /**
+     * The free cells of the baseline (the <code>baseSize</code> first ones).
+     */
+    private final int[] baseFree;
+    /**
+     * Position of each cell in the free cells of the baseline (NONE if not free).
+     */
+    private final int[] basePosition;
+    /**
+     * Number of free cells of the baseline.
+     */
+    private final int baseSize;
+    /**
+     * Number of elements covering each cell (line by line).
+     */
+    private final int[] count;
+    /**
+     * The free cells (the <code>size</code> first ones).
+     */
+    private final int[] free;
+    /**
+     * Position of each cell in the free cells (NONE if not free).
+     */
+    private final int[] position;
+    /**
+     * Generation of the grid when the count and the position of each cell were written.
+     */
+    private final int[] cellStamp;
+    /**
+     * Generation of the grid when each place of the free cells was written.
+     */
+    private final int[] freeStamp;
+    /**
+     * Generation of the grid (increased by each <code>clear()</code>).
+     */
+    private int generation = 1;
+    /**
+     * Number of free cells.
+     */
+    private int size;
+
+    /**
+     * Constructor of the grid, without any element (every cell not covered by an obstacle is free).
+     *
+     * @param gameSize  The information about the game size.
+     * @param cellSize  The width (and height) of a cell.
+     * @param obstacles The obstacles placed at the top left corner of the board (null if none).
+     */
+    FreeCells(RectangularShape gameSize, int cellSize, ObstacleMap obstacles) {
+        if(cellSize <= 0)
+            throw new IllegalArgumentException();
+
+        this.originX = gameSize.getX();
+        this.originY = gameSize.getY();
+        this.cellSize = cellSize;
+        this.columns = Math.max(0, (int) (gameSize.getWidth() / cellSize));
+        this.rows = Math.max(0, (int) (gameSize.getHeight() / cellSize));
+
+        int cells = this.columns * this.rows;
+        this.baseCount = new int[cells];
+        this.baseFree = new int[cells];
+        this.basePosition = new int[cells];
+        this.count = new int[cells];
+        this.free = new int[cells];
+        this.position = new int[cells];
+        this.cellStamp = new int[cells];
+        this.freeStamp = new int[cells];
+
+        // No Bonus on an obstacle
+        if(obstacles != null) {
+            int size = obstacles.getCellSize();
+            for(int row = 0 ; row < obstacles.getRows() ; row++) {
+                for(int column = 0 ; column < obstacles.getColumns() ; column++) {
+                    if(obstacles.isObstacle(column, row))
+                        this.cover(this.baseCount, column * size + this.originX, row * size + this.originY, size,
+                                   size);
+                }
+            }
+        }
+
+        int free = 0;
+        for(int cell = 0 ; cell < cells ; cell++) {
+            if(this.baseCount[cell] == 0) {
+                this.baseFree[free] = cell;
+                this.basePosition[cell] = free++;
+            } else {
+                this.basePosition[cell] = NONE;
+            }
+        }
+        this.baseSize = free;
+        this.size = free;
+    }
+
+    /**
+     * Method to add (or remove) an element covering the cells.
+     *
+     * @param x      The left position of the element.
+     * @param y      The top position of the element.
+     * @param width  The width of the element.
+     * @param height The height of the element.
+     * @param value  1 to add the element, -1 to remove it (as when added).
+     */
+    void add(double x, double y, double width, double height, int value) {
+        int minX = Math.max((int) Math.floor((x - this.originX) / this.cellSize), 0);
+        int minY = Math.max((int) Math.floor((y - this.originY) / this.cellSize), 0);
+        int maxX = Math.min((int) Math.ceil((x + width - this.originX) / this.cellSize) - 1, this.columns - 1);
+        int maxY = Math.min((int) Math.ceil((y + height - this.originY) / this.cellSize) - 1, this.rows - 1);
+
+        for(int cy = minY ; cy <= maxY ; cy++) {
+            for(int cx = minX ; cx <= maxX ; cx++) {
+                int cell = cy * this.columns + cx;
+                this.touch(cell);
+
+                if(value > 0 && this.count[cell]++ == 0)
+                    this.take(cell);
+                else if(value < 0 && --this.count[cell] == 0)
+                    this.release(cell);
+            }
+        }
+    }
+
+    /**
+     * Method to remove all the elements (the obstacles are kept), in a constant time: a new generation is started.
+     */
+    void clear() {
+        this.generation++;
+        this.size = this.baseSize;
+    }
+
+    /**
+     * Method to get the number of free cells.
+     *
+     * @return The number of free cells.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Method to choose a free cell at random.
+     *
+     * @param r The random generator.
+     *
+     * @return The cell chosen, or NONE if no cell is free.
+     */
+    int sample(SplittableRandom r) {
+        if(this.size == 0)
+            return NONE;
+
+        return this.freeAt(r.nextInt(this.size));
+    }
+
+    /**
+     * Method to get the left position of a cell.
+     *
+     * @param cell The cell.
+     *
+     * @return The left position.
+     */
+    float getX(int cell) {
+        return (float) (this.originX + (cell % this.columns) * this.cellSize);
+    }
+
+    /**
+     * Method to get the top position of a cell.
+     *
+     * @param cell The cell.
+     *
+     * @return The top position.
+     */
+    float getY(int cell) {
+        return (float) (this.originY + (cell / this.columns) * this.cellSize);
+    }
+
+    /**
+     * Method to increase the counters of the cells covered by a rectangle.
+     *
+     * @param count  The counters.
+     * @param x      The left position of the rectangle.
+     * @param y      The top position of the rectangle.
+     * @param width  The width of the rectangle.
+     * @param height The height of the rectangle.
+     */
+    private void cover(int[] count, double x, double y, double width, double height) {
+        int minX = Math.max((int) Math.floor((x - this.originX) / this.cellSize), 0);
+        int minY = Math.max((int) Math.floor((y - this.originY) / this.cellSize), 0);
+        int maxX = Math.min((int) Math.ceil((x + width - this.originX) / this.cellSize) - 1, this.columns - 1);
+        int maxY = Math.min((int) Math.ceil((y + height - this.originY) / this.cellSize) - 1, this.rows - 1);
+
+        for(int cy = minY ; cy <= maxY ; cy++) {
+            for(int cx = minX ; cx <= maxX ; cx++)
+                count[cy * this.columns + cx]++;
+        }
+    }
+
+    /**
+     * Method to read the count and the position of a cell from the baseline, if written by an older generation.
+     *
+     * @param cell The cell.
+     */
+    private void touch(int cell) {
+        if(this.cellStamp[cell] != this.generation) {
+            this.count[cell] = this.baseCount[cell];
+            this.position[cell] = this.basePosition[cell];
+            this.cellStamp[cell] = this.generation;
+        }
+    }
+
+    /**
+     * Method to get a free cell.
+     *
+     * @param i The place in the free cells.
+     *
+     * @return The cell (from the baseline if the place was written by an older generation).
+     */
+    private int freeAt(int i) {
+        return this.freeStamp[i] == this.generation ? this.free[i] : this.baseFree[i];
+    }
+
+    /**
+     * Method to write a free cell.
+     *
+     * @param i    The place in the free cells.
+     * @param cell The cell.
+     */
+    private void setFree(int i, int cell) {
+        this.free[i] = cell;
+        this.freeStamp[i] = this.generation;
+    }
+
+    /**
+     * Method to remove a cell from the free cells (the last free cell take its position).
+     *
+     * @param cell The cell (already touched).
+     */
+    private void take(int cell) {
+        int i = this.position[cell];
+        int last = this.freeAt(--this.size);
+
+        this.setFree(i, last);
+        this.touch(last);
+        this.position[last] = i;
+        this.position[cell] = NONE;
+    }
+
+    /**
+     * Method to add a cell to the free cells.
+     *
+     * @param cell The cell (already touched).
+     */
+    private void release(int cell) {
+        this.setFree(this.size, cell);
+        this.position[cell] = this.size++;
+    }
+}
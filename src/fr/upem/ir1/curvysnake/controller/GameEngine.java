@@ -0,0 +1,318 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import fr.upem.ir1.curvysnake.controller.exception.GameSizeException;
+
+import java.awt.*;
+import java.awt.geom.RectangularShape;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+/**
+ * This class represent a game, without any display. It own a World (the game size, the Bonus in game and the
+ * Snake).
+ * <p>
+ * <p>The game advance by tick: each tick apply the user actions, move every Snake alive, decrement the Bonus time and
+ * may add a new Bonus. The changes are returned in a <code>Delta</code>, to be displayed.</p>
+ * <p>
+ * <p>The Snake are moved in three phases, so no Snake is favoured by its index:</p>
+ * <ol>
+ * <li>the next heads of every Snake are computed from the previous tick</li>
+ * <li>the collisions of these heads are checked with the bodies of the previous tick and with the other next heads
+ * (two Snake hitting head to head both die)</li>
+ * <li>the Snake are moved, the Bonus are taken and the dead are removed, in the Snake order</li>
+ * </ol>
+ * <p>With many Snake, the two first phases are done on several processors.</p>
+ * <p>
+ * <p>The Snake are identified by their index (in the order of creation).</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see Delta
+ * @see Snake
+ */
+public class GameEngine {
+
+    /**
+     * Time between two ticks in a real time game (millisecond). The Bonus durations are counted in ticks.
+     */
+    public static final int TICK_PERIOD = 25;
+    /**
+     * Maximum number of ticks done at once by a real time game late on its schedule.
+     */
+    public static final int MAX_CATCH_UP = 4;
+    /**
+     * Minimum number of Snake in game to compute the moves on several processors.
+     */
+    private static final int PARALLEL_THRESHOLD = 8;
+
+    /**
+     * The game board, the Bonus and the Snake of this game.
+     */
+    private final World world;
+    /**
+     * List of Snake in game.
+     */
+    private final List<Snake> snakes = new ArrayList<>();
+    /**
+     * Status of each Snake (alive: true, dead: false).
+     */
+    private final List<Boolean> alive = new ArrayList<>();
+    /**
+     * Number of Snake alive.
+     */
+    private int living = 0;
+    /**
+     * Action of each Snake during the previous tick (null if none).
+     */
+    private final List<MoveTo> previous = new ArrayList<>();
+    /**
+     * Changes of the last tick.
+     */
+    private final Delta delta = new Delta();
+
+    /**
+     * Constructor of a new game.
+     *
+     * @param gameSize The information about the game size.
+     */
+    public GameEngine(RectangularShape gameSize) {
+        if(gameSize == null)
+            throw new NullPointerException();
+
+        this.world = new World(gameSize);
+    }
+
+    /**
+     * Constructor of a new game, reproducible from its seed (see <code>World</code>).
+     *
+     * @param gameSize The information about the game size.
+     * @param seed     The seed of the random generators of the game.
+     */
+    public GameEngine(RectangularShape gameSize, long seed) {
+        if(gameSize == null)
+            throw new NullPointerException();
+
+        this.world = new World(gameSize, seed);
+    }
+
+    /**
+     * Method to add a new Snake in game.
+     *
+     * @param init  The initial position of the Snake.
+     * @param alpha The initial alpha direction of the Snake.
+     *
+     * @return The index of the new Snake.
+     */
+    public int addSnake(Point init, int alpha) {
+        this.snakes.add(new Snake(this.world, init, alpha));
+        this.alive.add(true);
+        this.living++;
+        this.previous.add(null);
+        this.delta.addSnake();
+
+        return this.snakes.size() - 1;
+    }
+
+    /**
+     * Method to get a Snake in game.
+     *
+     * @param snake The Snake index.
+     *
+     * @return The Snake.
+     */
+    public Snake getSnake(int snake) {
+        return this.snakes.get(snake);
+    }
+
+    /**
+     * Method to get the number of Snake in game (alive or dead).
+     *
+     * @return The number of Snake.
+     */
+    public int size() {
+        return this.snakes.size();
+    }
+
+    /**
+     * Method to know if a Snake is alive.
+     *
+     * @param snake The Snake index.
+     *
+     * @return True if the Snake is alive, false else.
+     */
+    public boolean isAlive(int snake) {
+        return this.alive.get(snake);
+    }
+
+    /**
+     * Method to know if the game is over (every Snake is dead).
+     *
+     * @return True if no Snake is alive, false else.
+     */
+    public boolean isOver() {
+        return this.living == 0;
+    }
+
+    /**
+     * Method to get the information about the game size.
+     *
+     * @return The information about the game size.
+     */
+    public RectangularShape getGameSize() {
+        return this.world.getGameSize();
+    }
+
+    /**
+     * Method to get the Bonus actually in game.
+     *
+     * @return The BonusListInGame of the game.
+     */
+    public BonusListInGame getBonusListInGame() {
+        return this.world.getBonusListInGame();
+    }
+
+    /**
+     * Method to get the world of the game (to change the game size or the collision detection).
+     *
+     * @return The World of the game.
+     */
+    public World getWorld() {
+        return this.world;
+    }
+
+    /**
+     * Method to advance the game of one tick.
+     * <p>
+     * <p>The action of a Snake is considered "in turn" if the Snake already turned during the previous tick (see
+     * <code>Snake.changeDirection</code>).</p>
+     *
+     * @param inputs The action of each Snake (by index) for this tick. A missing or null action keep the direction.
+     *
+     * @return The changes of the game (valid until the next tick).
+     *
+     * @throws IllegalAccessException If a bonus can not be affected to a snake (ex: erase all)
+     * @throws GameSizeException      If the GameSize is not set
+     */
+    public Delta tick(MoveTo... inputs) throws IllegalAccessException, GameSizeException {
+        this.delta.clear();
+
+        for(int i = 0 ; i < this.snakes.size() ; i++) {
+            MoveTo input = i < inputs.length ? inputs[i] : null;
+
+            if(this.alive.get(i) && input != null)
+                this.snakes.get(i).changeDirection(input, this.previous.get(i) != null);
+
+            this.previous.set(i, input);
+        }
+
+        // The next heads, their collisions with the game of the previous tick, then with each other
+        this.forEachAlive(Snake::plan);
+        this.forEachAlive((snake) -> snake.getMovement().collide());
+        Movement.collidePlans(this.world.getSnakeList());
+
+        long generation = this.world.getGeneration();
+        for(int i = 0 ; i < this.snakes.size() ; i++) {
+            if(!this.alive.get(i))
+                continue;
+
+            MoveResult result = this.snakes.get(i).advance(this.delta.getAdded(i), this.delta.getErased());
+            if(!result.isAlive()) {
+                this.alive.set(i, false);
+                this.living--;
+            }
+        }
+        this.delta.setCleared(this.world.getGeneration() != generation);
+
+        this.world.decrementAll();
+        this.delta.setBonus(this.world.getBonusListInGame().random());
+
+        return this.delta;
+    }
+
+    /**
+     * Method to do a phase of the tick on every Snake alive. The phase is done on several processors if there are
+     * enough Snake alive, so it must not change anything shared by the Snake.
+     *
+     * @param phase The phase to do.
+     *
+     * @throws IllegalAccessException If a bonus can not be affected to a snake (ex: erase all)
+     * @throws GameSizeException      If the GameSize is not set
+     */
+    private void forEachAlive(Phase phase) throws IllegalAccessException, GameSizeException {
+        if(this.living < PARALLEL_THRESHOLD) {
+            for(int i = 0 ; i < this.snakes.size() ; i++) {
+                if(this.alive.get(i))
+                    phase.run(this.snakes.get(i));
+            }
+            return;
+        }
+
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        IntStream.range(0, this.snakes.size()).parallel().forEach((i) -> {
+            if(!this.alive.get(i))
+                return;
+
+            try {
+                phase.run(this.snakes.get(i));
+            } catch(IllegalAccessException | GameSizeException e) {
+                failure.compareAndSet(null, e);
+            }
+        });
+
+        if(failure.get() instanceof IllegalAccessException)
+            throw (IllegalAccessException) failure.get();
+        if(failure.get() instanceof GameSizeException)
+            throw (GameSizeException) failure.get();
+    }
+
+    /**
+     * Method to remove all the Snake of this game from the collision detection. The game can not be used anymore.
+     */
+    public void destroy() {
+        this.snakes.forEach(this.world::destroy);
+    }
+
+    /**
+     * Interface of a phase of the tick, done on one Snake.
+     */
+    @FunctionalInterface
+    private interface Phase {
+        /**
+         * Method to do the phase on a Snake.
+         *
+         * @param snake The Snake.
+         *
+         * @throws IllegalAccessException If a bonus can not be affected to a snake (ex: erase all)
+         * @throws GameSizeException      If the GameSize is not set
+         */
+        void run(Snake snake) throws IllegalAccessException, GameSizeException;
+    }
+}
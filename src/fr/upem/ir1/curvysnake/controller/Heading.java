@@ -0,0 +1,133 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+/**
+ * This class represent the table of the directions available for a Snake, and the fixed-point positions.
+ * <p>
+ * <p>The Snake direction only change by steps of 5 degree, so the move of the head for every direction is computed
+ * once (with <code>StrictMath</code>) and stored in a table. The positions are stored in fixed point: an integer
+ * counting 1/256 of pixel. There is no trigonometry, and no rounding difference between two JVM, during a game.</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see Snake
+ * @see Movement
+ */
+final class Heading {
+
+    /**
+     * Angle (degree) between two directions of the table.
+     */
+    static final int STEP = 5;
+    /**
+     * Number of bits used for the fractional part of a fixed-point position.
+     */
+    static final int PRECISION = 8;
+
+    /**
+     * Move of the head on <code>x</code> for one step, for each direction (fixed point).
+     */
+    private static final int[] X = new int[360 / STEP];
+    /**
+     * Move of the head on <code>y</code> for one step, for each direction (fixed point).
+     */
+    private static final int[] Y = new int[360 / STEP];
+
+    static {
+        // One step is half a body element
+        double length = (Movement.defaultDiameter / 2) * (1 << PRECISION);
+
+        for(int i = 0 ; i < X.length ; i++) {
+            double angle = StrictMath.toRadians(i * STEP);
+
+            X[i] = (int) StrictMath.round(StrictMath.cos(angle) * length);
+            Y[i] = (int) StrictMath.round(StrictMath.sin(angle) * length);
+        }
+    }
+
+    /**
+     * Constructor to avoid instance.
+     */
+    private Heading() {
+    }
+
+    /**
+     * Method to get the nearest angle available in the table.
+     *
+     * @param alpha The angle (degree).
+     *
+     * @return The nearest multiple of <code>STEP</code>.
+     */
+    static int round(int alpha) {
+        return Math.round(alpha / (float) STEP) * STEP;
+    }
+
+    /**
+     * Method to get the move of the head on <code>x</code> for one step.
+     *
+     * @param alpha The direction angle (degree, multiple of <code>STEP</code>).
+     *
+     * @return The move, in fixed point.
+     */
+    static int x(int alpha) {
+        return X[Math.floorMod(alpha, 360) / STEP];
+    }
+
+    /**
+     * Method to get the move of the head on <code>y</code> for one step.
+     *
+     * @param alpha The direction angle (degree, multiple of <code>STEP</code>).
+     *
+     * @return The move, in fixed point.
+     */
+    static int y(int alpha) {
+        return Y[Math.floorMod(alpha, 360) / STEP];
+    }
+
+    /**
+     * Method to convert a position in pixel to a fixed-point position.
+     *
+     * @param pixel The position in pixel (a multiple of 1/256).
+     *
+     * @return The fixed-point position.
+     */
+    static int toFixed(float pixel) {
+        return (int) (pixel * (1 << PRECISION));
+    }
+
+    /**
+     * Method to convert a fixed-point position to a position in pixel. The conversion is exact.
+     *
+     * @param fixed The fixed-point position.
+     *
+     * @return The position in pixel.
+     */
+    static float toPixel(int fixed) {
+        return fixed / (float) (1 << PRECISION);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import java.util.Arrays;
+
+/**
+ * Class representing the result of a simulated game: its number of ticks, the death tick of each Snake and the number
+ * of Bonus taken of each type.
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see BatchRunner
+ */
+public final class MatchResult {
+
+    /**
+     * The description of the game.
+     */
+    private final MatchSpec spec;
+    /**
+     * Number of ticks played.
+     */
+    private final int ticks;
+    /**
+     * Tick of the death of each Snake (-1 if alive at the end).
+     */
+    private final int[] deathTick;
+    /**
+     * Number of Bonus taken of each type (indexed by the ordinal of the type).
+     */
+    private final int[] pickups;
+
+    /**
+     * Constructor of a game result.
+     *
+     * @param spec      The description of the game.
+     * @param ticks     The number of ticks played.
+     * @param deathTick The tick of the death of each Snake (-1 if alive at the end).
+     * @param pickups   The number of Bonus taken of each type (indexed by the ordinal of the type).
+     */
+    MatchResult(MatchSpec spec, int ticks, int[] deathTick, int[] pickups) {
+        this.spec = spec;
+        this.ticks = ticks;
+        this.deathTick = deathTick;
+        this.pickups = pickups;
+    }
+
+    /**
+     * Method to get the description of the game.
+     *
+     * @return The game description.
+     */
+    public MatchSpec getSpec() {
+        return this.spec;
+    }
+
+    /**
+     * Method to get the number of ticks played.
+     *
+     * @return The number of ticks.
+     */
+    public int getTicks() {
+        return this.ticks;
+    }
+
+    /**
+     * Method to get the tick of the death of a Snake.
+     *
+     * @param snake The Snake index.
+     *
+     * @return The tick of the death, or -1 if the Snake is alive at the end of the game.
+     */
+    public int getDeathTick(int snake) {
+        return this.deathTick[snake];
+    }
+
+    /**
+     * Method to get the number of Bonus of a type taken by all the Snake.
+     *
+     * @param type The type of Bonus.
+     *
+     * @return The number of Bonus taken.
+     */
+    public int getPickups(BonusAvailable type) {
+        return this.pickups[type.ordinal()];
+    }
+
+    /**
+     * Method to get the winner of the game: the only Snake which lived the longest.
+     *
+     * @return The index of the winner, or -1 if several Snake lived the longest.
+     */
+    public int getWinner() {
+        int winner = -1;
+        int best = -1;
+        boolean tie = false;
+
+        for(int i = 0 ; i < this.deathTick.length ; i++) {
+            int life = this.deathTick[i] == -1 ? Integer.MAX_VALUE : this.deathTick[i];
+
+            if(life > best) {
+                best = life;
+                winner = i;
+                tie = false;
+            } else if(life == best) {
+                tie = true;
+            }
+        }
+
+        return tie ? -1 : winner;
+    }
+
+    @Override
+    public String toString() {
+        return "MatchResult{" +
+                       "seed=" + this.spec.getSeed() +
+                       ", ticks=" + this.ticks +
+                       ", deathTick=" + Arrays.toString(this.deathTick) +
+                       ", pickups=" + Arrays.toString(this.pickups) +
+                       ", winner=" + this.getWinner() +
+                       '}';
+    }
+}
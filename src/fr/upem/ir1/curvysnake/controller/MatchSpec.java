@@ -0,0 +1,180 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import java.awt.geom.RectangularShape;
+
+/**
+ * Class representing the description of a game to simulate: the game size, the static obstacles, the Snake (one Bot
+ * per Snake), the seed of the random generator and the maximum number of ticks.
+ * <p>
+ * <p>The attributes can not be modified: a new instance is returned instead (like <code>Bonus</code>).</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see BatchRunner
+ */
+public final class MatchSpec {
+
+    /**
+     * Default maximum number of ticks of a game (5 minutes of real time game).
+     */
+    public static final int DEFAULT_MAX_TICKS = 5 * 60 * 1000 / GameEngine.TICK_PERIOD;
+
+    /**
+     * The information about the game size.
+     */
+    private final RectangularShape gameSize;
+    /**
+     * The static obstacles of the game board (null if none), shared by all the games.
+     */
+    private final ObstacleMap obstacles;
+    /**
+     * Seed of the random generator of the game (start positions, Bot choices, Bonus and holes in the bodies).
+     */
+    private final long seed;
+    /**
+     * Maximum number of ticks of the game.
+     */
+    private final int maxTicks;
+    /**
+     * The player of each Snake.
+     */
+    private final Bot[] bots;
+
+    /**
+     * Constructor of a game description, with the default maximum number of ticks.
+     *
+     * @param gameSize The information about the game size.
+     * @param seed     The seed of the random generator of the game.
+     * @param bots     The player of each Snake.
+     */
+    public MatchSpec(RectangularShape gameSize, long seed, Bot... bots) {
+        this(gameSize, seed, DEFAULT_MAX_TICKS, bots);
+    }
+
+    /**
+     * Constructor of a game description.
+     *
+     * @param gameSize The information about the game size.
+     * @param seed     The seed of the random generator of the game.
+     * @param maxTicks The maximum number of ticks of the game.
+     * @param bots     The player of each Snake.
+     */
+    public MatchSpec(RectangularShape gameSize, long seed, int maxTicks, Bot... bots) {
+        this(gameSize, null, seed, maxTicks, bots);
+    }
+
+    /**
+     * Constructor of a game description, with static obstacles.
+     *
+     * @param gameSize  The information about the game size.
+     * @param obstacles The static obstacles of the game board (null if none).
+     * @param seed      The seed of the random generator of the game.
+     * @param maxTicks  The maximum number of ticks of the game.
+     * @param bots      The player of each Snake.
+     */
+    public MatchSpec(RectangularShape gameSize, ObstacleMap obstacles, long seed, int maxTicks, Bot... bots) {
+        if(gameSize == null)
+            throw new NullPointerException();
+        if(maxTicks <= 0 || bots.length == 0)
+            throw new IllegalArgumentException();
+
+        this.gameSize = gameSize;
+        this.obstacles = obstacles;
+        this.seed = seed;
+        this.maxTicks = maxTicks;
+        this.bots = bots.clone();
+    }
+
+    /**
+     * Method to get the information about the game size.
+     *
+     * @return The information about the game size.
+     */
+    public RectangularShape getGameSize() {
+        return this.gameSize;
+    }
+
+    /**
+     * Method to get the static obstacles of the game board.
+     *
+     * @return The obstacles, or null if none.
+     */
+    public ObstacleMap getObstacles() {
+        return this.obstacles;
+    }
+
+    /**
+     * Method to get the seed of the random generator of the game.
+     *
+     * @return The seed.
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Method to get a copy of this description with another seed.
+     *
+     * @param seed The new seed.
+     *
+     * @return The new game description.
+     */
+    public MatchSpec setSeed(long seed) {
+        return new MatchSpec(this.gameSize, this.obstacles, seed, this.maxTicks, this.bots);
+    }
+
+    /**
+     * Method to get the maximum number of ticks of the game.
+     *
+     * @return The maximum number of ticks.
+     */
+    public int getMaxTicks() {
+        return this.maxTicks;
+    }
+
+    /**
+     * Method to get the number of Snake in game.
+     *
+     * @return The number of Snake.
+     */
+    public int size() {
+        return this.bots.length;
+    }
+
+    /**
+     * Method to get the player of a Snake.
+     *
+     * @param snake The Snake index.
+     *
+     * @return The Bot playing the Snake.
+     */
+    public Bot getBot(int snake) {
+        return this.bots[snake];
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Class representing the result of a move of a Snake: still alive, or the cause of its death (a wall, itself or
+ * another Snake), and the Bonus collected.
+ * <p>
+ * <p>The result is reused by its Snake: it is only valid until the next move. No exception (and no stack trace) is
+ * created for a death.</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see Snake#tryMove(List, List)
+ */
+public class MoveResult {
+
+    /**
+     * The Snake moved.
+     */
+    private final Snake snake;
+    /**
+     * List of the Bonus collected during the move.
+     */
+    private final List<Bonus> bonus = new ArrayList<>();
+    /**
+     * Unmodifiable view of the list of the Bonus collected.
+     */
+    private final List<Bonus> bonusView = Collections.unmodifiableList(this.bonus);
+    /**
+     * The Snake is still alive, or not.
+     */
+    private boolean alive = true;
+    /**
+     * The Snake hit a wall, or not.
+     */
+    private boolean wall = false;
+    /**
+     * The Snake hit (itself or another one), or null.
+     */
+    private Snake other = null;
+
+    /**
+     * Constructor of the result of the moves of a Snake.
+     *
+     * @param snake The Snake moved.
+     */
+    MoveResult(Snake snake) {
+        this.snake = snake;
+    }
+
+    /**
+     * Method to reset the result before a new move.
+     */
+    void clear() {
+        this.bonus.clear();
+        this.alive = true;
+        this.wall = false;
+        this.other = null;
+    }
+
+    /**
+     * Method to set the death of the Snake by a wall.
+     */
+    void hitWall() {
+        this.alive = false;
+        this.wall = true;
+    }
+
+    /**
+     * Method to set the death of the Snake by a Snake body.
+     *
+     * @param other The Snake hit (itself or another one).
+     */
+    void hitSnake(Snake other) {
+        this.alive = false;
+        this.other = other;
+    }
+
+    /**
+     * Method to add a Bonus collected.
+     *
+     * @param b The Bonus collected.
+     */
+    void collect(Bonus b) {
+        this.bonus.add(b);
+    }
+
+    /**
+     * Method to know if the Snake is still alive after the move.
+     *
+     * @return True if the Snake did not hit anything, false else.
+     */
+    public boolean isAlive() {
+        return this.alive;
+    }
+
+    /**
+     * Method to know if the Snake died on a wall (or on an obstacle).
+     *
+     * @return True if the Snake hit a wall or an obstacle, false else.
+     */
+    public boolean isWallHit() {
+        return this.wall;
+    }
+
+    /**
+     * Method to know if the Snake died on its own body.
+     *
+     * @return True if the Snake hit itself, false else.
+     */
+    public boolean isSelfHit() {
+        return this.other == this.snake;
+    }
+
+    /**
+     * Method to get the Snake hit by the head.
+     *
+     * @return The Snake hit (the moved Snake itself for a self collision), or null if no Snake was hit.
+     */
+    public Snake getOther() {
+        return this.other;
+    }
+
+    /**
+     * Method to get the Bonus collected during the move (an erase all is included).
+     *
+     * @return An unmodifiable view of the Bonus collected.
+     */
+    public List<Bonus> getBonus() {
+        return this.bonusView;
+    }
+
+    @Override
+    public String toString() {
+        String status = this.alive ? "alive" : this.wall ? "wall" : this.isSelfHit() ? "self" : "snake";
+
+        return "MoveResult{" + status + ", bonus=" + this.bonus.size() + "}";
+    }
+}
@@ -30,9 +30,7 @@ import fr.upem.ir1.curvysnake.controller.exception.CollisionException;
 import fr.upem.ir1.curvysnake.controller.exception.GameSizeException;
 
 import java.awt.*;
-import java.awt.geom.Ellipse2D;
 import java.awt.geom.RectangularShape;
-import java.util.*;
 import java.util.List;
 
 /**
@@ -50,73 +48,84 @@ class Movement {
      */
     public static final int defaultDiameter = 10;
     /**
-     * The border limit minimum of the movement (allowed - include)
+     * The game of the body (game size and collision structure).
      */
-    private static RectangularShape gameSize = null;
+    private final World world;
     /**
-     * List of <code>RectangularShape</code> (body) elements.
+     * List of body elements (circles).
      */
-    private final Deque<RectangularShape> move = new LinkedList<>();
+    private final Trail move = new Trail();
     /**
      * Flag to know if a previous move was done or not. It is used to increase the snake size (every other time).
      */
     private boolean isIncreased = false;
+    /**
+     * Index of the head element. Each new element get the next index, so the queue index is
+     * <code>last - move.size() + 1</code>.
+     */
+    private long last = 0;
+    /**
+     * Next head elements of the body, computed before moving it (see <code>GameEngine</code>).
+     */
+    private final Plan plan = new Plan();
 
     /**
      * Constructor of the body. It is only need the start body part.
      *
-     * @param init The initial point of the snake movement.
+     * @param world The game of the body.
+     * @param init  The initial point of the snake movement.
      */
-    Movement(Point init) {
-        Ellipse2D.Float aFloat = new Ellipse2D.Float((float) init.x - defaultDiameter / 2,
-                                                     (float) init.y - defaultDiameter / 2,
-                                                     defaultDiameter, defaultDiameter);
-        this.move.add(aFloat);
+    Movement(World world, Point init) {
+        this.world = world;
+
+        this.move.addLast((float) init.x - defaultDiameter / 2, (float) init.y - defaultDiameter / 2,
+                          defaultDiameter);
+        world.insert(this, this.last, this.move.getX(0), this.move.getY(0), defaultDiameter);
     }
 
     /**
-     * Static method to get the information about the game size
+     * Method to get the snake body.
      *
-     * @return The information about the game size
+     * @return The snake body.
      */
-    static RectangularShape getGameSize() {
-        return gameSize;
+    Trail getMove() {
+        return this.move;
     }
 
     /**
-     * Static method to specify the information about the game size
+     * Method to get the next head elements of the body.
      *
-     * @param rectangle New game size information
+     * @return The plan of the body.
      */
-    static void setGameSize(RectangularShape rectangle) {
-        gameSize = rectangle;
+    Plan getPlan() {
+        return this.plan;
     }
 
     /**
-     * Method to get the snake body.
+     * Method to get the index of the head element.
      *
-     * @return The snake body.
+     * @return The index of the head in the body.
      */
-    Deque<RectangularShape> getMove() {
-        return this.move;
+    long getLast() {
+        return this.last;
     }
 
     /**
      * Method to get the head of the snake.
      *
-     * @return The last added Ellipse2D.Float.
+     * @return A new Ellipse2D.Float of the last added element.
      */
     RectangularShape getHead() {
-        return (RectangularShape) this.move.getLast().clone();
+        return this.move.get(this.move.size() - 1);
     }
 
     /**
      * Method to get queue of the snake.
      *
-     * @return Return the queue element.
+     * @return A new Ellipse2D.Float of the queue element.
      */
     RectangularShape getQueue() {
-        return (RectangularShape) this.move.getFirst().clone();
+        return this.move.get(0);
     }
 
     /**
@@ -125,12 +134,45 @@ class Movement {
      * @return True if the Snake head hit another snake, false else.
      */
     boolean intersects() {
-        for(Snake snake : Snake.getSnakeList()) {
-            if(this.intersects(snake.getMove()))
-                return true;
+        int head = this.move.size() - 1;
+
+        return this.world.getIndex().intersects(this, this.move.getX(head), this.move.getY(head), this.move.getDiameter(head),
+                                this.last);
+    }
+
+    /**
+     * Method to get the body hit by the Snake head (another or itself).
+     *
+     * @return The body hit, or null if none.
+     */
+    Movement hit() {
+        if(!this.intersects())
+            return null;
+
+        int head = this.move.size() - 1;
+        return this.bodyHit(this.move.getX(head), this.move.getY(head), this.move.getDiameter(head), this.last);
+    }
+
+    /**
+     * Method to find the body hit by a head of this Snake, once a collision is detected. The bodies are read in the
+     * order of the game, so the result does not depend on the collision detection used (only done when a Snake die).
+     *
+     * @param x     The left position of the head.
+     * @param y     The top position of the head.
+     * @param width The diameter of the head.
+     * @param last  The index of the head in this body.
+     *
+     * @return The first body intersecting the head, or this body if none intersect it exactly (see
+     * <code>OccupancyRaster</code>).
+     */
+    private Movement bodyHit(float x, float y, float width, long last) {
+        List<Snake> snakes = this.world.getSnakeList();
+        for(int i = 0 ; i < snakes.size() ; i++) {
+            if(this.intersects(x, y, width, last, snakes.get(i).getMove()))
+                return snakes.get(i).getMovement();
         }
 
-        return false;
+        return this;
     }
 
     /**
@@ -141,8 +183,14 @@ class Movement {
      * @return True if an intersection is detected, false else.
      */
     boolean intersects(RectangularShape position) {
-        for(RectangularShape shape : this.move) {
-            if(position.intersects(shape.getX(), shape.getY(), shape.getWidth(), shape.getHeight())) {
+        // The whole body is skipped if the position is outside its bounds
+        if(!this.move.mayIntersect(position.getX(), position.getY(), position.getWidth(), position.getHeight()))
+            return false;
+
+        for(int i = 0 ; i < this.move.size() ; i++) {
+            float diameter = this.move.getDiameter(i);
+
+            if(position.intersects(this.move.getX(i), this.move.getY(i), diameter, diameter)) {
                 return true;
             }
         }
@@ -151,44 +199,61 @@ class Movement {
     }
 
     /**
-     * Method to check if the Snake head hit a body part of a snake (another or itself).
+     * Method to check if a head of this Snake (added or planned) hit a body part of a snake (another or itself).
      *
+     * @param x        The left position of the head.
+     * @param y        The top position of the head.
+     * @param width    The diameter of the head.
+     * @param last     The index of the head in this body.
      * @param bodyList The body of the other Snake to check with.
      *
-     * @return True if the Snake head hit another snake, false else.
+     * @return True if the head hit the body, false else.
      */
-    public boolean intersects(Deque<RectangularShape> bodyList) {
-        RectangularShape head = this.getHead();
-
-        boolean himself = false;
-        if(this.move == bodyList) himself = true;
-
-        int i = 0;
-        int sizeOther = bodyList.size();
-        for(RectangularShape shape : bodyList) {
-            if(head.intersects(shape.getX(), shape.getY(), shape.getWidth(), shape.getHeight()))
-                if(!himself || sizeOther - i > head.getWidth())
-                    return true;
-
-            i++;
+    boolean intersects(float x, float y, float width, long last, Trail bodyList) {
+        // The whole body is skipped if the head is outside its bounds
+        if(!bodyList.mayIntersect(x, y, width, width))
+            return false;
+
+        int end = bodyList.size();
+        if(this.move == bodyList) {
+            // Index of the queue: the last elements (the neck of the head) are ignored
+            long first = this.last - this.move.size() + 1;
+            while(end > 0 && last - (first + end - 1) + 1 <= width)
+                end--;
         }
 
-        return false;
+        return bodyList.overlaps(x, y, width, end);
     }
 
     /**
-     * Method to check if the Snake head hit a border wall.
+     * Method to check if a circle intersect a rectangle (same result as
+     * <code>Ellipse2D.intersects(double, double, double, double)</code>).
      *
-     * @return True if the Snake head hit a border wall, false else.
+     * @param x        The left position of the circle.
+     * @param y        The top position of the circle.
+     * @param diameter The diameter of the circle.
+     * @param rx       The left position of the rectangle.
+     * @param ry       The top position of the rectangle.
+     * @param rw       The width of the rectangle.
+     * @param rh       The height of the rectangle.
      *
-     * @throws GameSizeException If the GameSize is not set.
+     * @return True if the circle intersect the rectangle, false else.
      */
-    public boolean isHittingTheWall() throws GameSizeException {
-        if(gameSize == null)
-            throw new GameSizeException();
+    static boolean overlaps(float x, float y, float diameter, float rx, float ry, float rw, float rh) {
+        if(rw <= 0 || rh <= 0 || diameter <= 0)
+            return false;
 
-        RectangularShape head = this.getHead();
-        return !gameSize.contains(head.getX(), head.getY(), head.getWidth(), head.getHeight());
+        // Position of the rectangle relative to the circle (the diameter is 1)
+        double x0 = (rx - x) / (double) diameter - 0.5;
+        double x1 = x0 + rw / (double) diameter;
+        double y0 = (ry - y) / (double) diameter - 0.5;
+        double y1 = y0 + rh / (double) diameter;
+
+        // Nearest point of the rectangle from the circle center
+        double nearX = x0 > 0 ? x0 : (x1 < 0 ? x1 : 0);
+        double nearY = y0 > 0 ? y0 : (y1 < 0 ? y1 : 0);
+
+        return nearX * nearX + nearY * nearY < 0.25;
     }
 
     /**
@@ -196,108 +261,314 @@ class Movement {
      * <p>
      * <p>Every other time, the snake body increased it own size. Else, it move.</p>
      *
-     * @param direction   It's the direction of the Snake (value between -1 and 1 for <code>x</code> and <code>y</code>).
+     * @param dx          The move of the head on <code>x</code> for one step (fixed point, see <code>Heading</code>).
+     * @param dy          The move of the head on <code>y</code> for one step (fixed point, see <code>Heading</code>).
      * @param size        The bonus size needed to be added to the new body element size.
      * @param nextHope    The next position (movement from the previous position) of the new body element.
      * @param wallThrough Bonus to know if the snake is allowed to through a wall.
-     * @param erase       The list of element erased from the snake body.
+     * @param erase       The list of element erased from the snake body (null if not needed).
      *
      * @throws CollisionException If collision with a wall or a snake (another or itself) is detected.
      * @throws GameSizeException  If the GameSize is not set
      */
-    public void move(Point direction, int size, int nextHope, boolean wallThrough, List<RectangularShape> erase) throws
-            CollisionException, GameSizeException {
-
-        if(erase == null)
-            throw new NullPointerException();
+    public void move(int dx, int dy, int size, int nextHope, boolean wallThrough, List<RectangularShape> erase)
+            throws CollisionException, GameSizeException {
+        if(!this.tryMove(dx, dy, size, nextHope, wallThrough, erase, null))
+            throw new CollisionException();
+    }
 
-        Rectangle nextHead = this.move.getLast().getBounds();
+    /**
+     * Method to move the snake body, without any exception for a collision.
+     * <p>
+     * <p>Every other time, the snake body increased it own size. Else, it move.</p>
+     *
+     * @param dx          The move of the head on <code>x</code> for one step (fixed point, see <code>Heading</code>).
+     * @param dy          The move of the head on <code>y</code> for one step (fixed point, see <code>Heading</code>).
+     * @param size        The bonus size needed to be added to the new body element size.
+     * @param nextHope    The next position (movement from the previous position) of the new body element.
+     * @param wallThrough Bonus to know if the snake is allowed to through a wall.
+     * @param erase       The list of element erased from the snake body (null if not needed).
+     * @param result      The result receiving the cause of a collision (null if not needed).
+     *
+     * @return True if the move is done, false if a collision with a wall or a snake (another or itself) is detected.
+     *
+     * @throws GameSizeException If the GameSize is not set
+     */
+    public boolean tryMove(int dx, int dy, int size, int nextHope, boolean wallThrough, List<RectangularShape> erase,
+                           MoveResult result) throws GameSizeException {
+        this.plan.clear();
+        this.plan(dx, dy, size, nextHope, wallThrough);
+
+        this.append(0);
+        boolean wall = this.plan.getHit() != Plan.NONE;
+        this.plan.clear();
+
+        if(wall) {
+            if(result != null)
+                result.hitWall();
+            return false;
+        }
 
-        // Manage the next hope position
-        for(int i = 0 ; i <= nextHope ; i++) {
-            nextHead.translate(direction.x / 2 * (nextHope + 1), direction.y / 2 * (nextHope + 1));
+        // Check if the move generate a collision with a snake
+        Movement body = this.hit();
+        if(body != null) {
+            if(result != null)
+                result.hitSnake(this.world.getSnake(body));
+            return false;
         }
 
-        // Set the new size of the body element
-        size += defaultDiameter;
-        nextHead.x += nextHead.width - size;
-        nextHead.y += nextHead.height - size;
-        nextHead.height = size;
-        nextHead.width = size;
+        this.shrink(erase);
+        return true;
+    }
 
-        // Transform rectangle to ellipse
-        RectangularShape nextMove = new Ellipse2D.Float(nextHead.x, nextHead.y, nextHead.width, nextHead.height);
+    /**
+     * Method to compute the next head element of the body (after the last planned one, or after the head) and add it
+     * to the plan. The body is not moved.
+     * <p>
+     * <p>If the element hit a wall (and the snake is not allowed to through it) or an obstacle, the hit is recorded in
+     * the plan.</p>
+     *
+     * @param dx          The move of the head on <code>x</code> for one step (fixed point, see <code>Heading</code>).
+     * @param dy          The move of the head on <code>y</code> for one step (fixed point, see <code>Heading</code>).
+     * @param size        The bonus size needed to be added to the new body element size.
+     * @param nextHope    The next position (movement from the previous position) of the new body element.
+     * @param wallThrough Bonus to know if the snake is allowed to through a wall.
+     *
+     * @throws GameSizeException If the GameSize is not set
+     */
+    void plan(int dx, int dy, int size, int nextHope, boolean wallThrough) throws GameSizeException {
+        RectangularShape gameSize = this.world.getGameSize();
+        if(gameSize == null)
+            throw new GameSizeException();
+
+        // Position of the previous head (fixed point)
+        int previous = this.plan.size() - 1;
+        int head = this.move.size() - 1;
+        int x = Heading.toFixed(previous < 0 ? this.move.getX(head) : this.plan.getX(previous));
+        int y = Heading.toFixed(previous < 0 ? this.move.getY(head) : this.plan.getY(previous));
+        int diameter = (int) (previous < 0 ? this.move.getDiameter(head) : this.plan.getDiameter(previous));
 
+        // Manage the next hope position: (nextHope + 1) moves of (nextHope + 1) steps
+        int hope = (nextHope + 1) * (nextHope + 1);
+        x += dx * hope;
+        y += dy * hope;
 
-        this.move.add(nextMove);
+        // Set the new size of the body element
+        size += defaultDiameter;
+        x += (diameter - size) << Heading.PRECISION;
+        y += (diameter - size) << Heading.PRECISION;
+
+        float left = Heading.toPixel(x);
+        float top = Heading.toPixel(y);
 
         // Check if the move generate a wall hit
-        if(this.isHittingTheWall()) {
+        if(!gameSize.contains(left, top, size, size)) {
             if(wallThrough) {
-                this.throughWall(nextMove);
+                left = through(left, size, gameSize.getX(), gameSize.getWidth());
+                top = through(top, size, gameSize.getY(), gameSize.getHeight());
             } else {
-                // this.move.removeLast();
-                throw new CollisionException();
+                this.plan.hit(previous + 1, null);
             }
         }
 
-        // Check if the move generate a collision with himself
-        if(this.intersects())
-            throw new CollisionException();
+        // Check if the move generate an obstacle hit (an obstacle can not be through)
+        if(this.world.hitObstacle(left, top, size))
+            this.plan.hit(previous + 1, null);
 
-        this.isIncreased = !this.isIncreased;
+        this.plan.add(left, top, size);
+    }
 
-        // Every other time, the body size is increased.
-        if(!this.isIncreased)
-            erase.add(this.move.removeFirst());
+    /**
+     * Method to check if the planned head elements hit a body part of a snake (another or itself), or a previous
+     * element of the same plan. The first element which hit is recorded in the plan.
+     * <p>
+     * <p>Nothing is moved during the check: the checks of all the snakes can be done at the same time. The hits between
+     * the plans of several snakes are checked after (see <code>collidePlans</code>).</p>
+     */
+    void collide() {
+        CollisionIndex index = this.world.getIndex();
+
+        int end = this.plan.getHit() == Plan.NONE ? this.plan.size() : this.plan.getHit();
+        for(int k = 0 ; k < end ; k++) {
+            float x = this.plan.getX(k);
+            float y = this.plan.getY(k);
+            float diameter = this.plan.getDiameter(k);
+
+            Movement hit = null;
+            if(index.intersects(this, x, y, diameter, this.last + k + 1))
+                hit = this.bodyHit(x, y, diameter, this.last + k + 1);
+
+            // The previous planned elements of this body (except the neck)
+            for(int m = 0 ; m < k && hit == null ; m++) {
+                float size = this.plan.getDiameter(m);
+                if(k - m + 1 > diameter && overlaps(x, y, diameter, this.plan.getX(m), this.plan.getY(m), size, size))
+                    hit = this;
+            }
+
+            if(hit != null) {
+                this.plan.hit(k, hit);
+                return;
+            }
+        }
     }
 
     /**
-     * Method to move the head of the body to the opposite position when it hit a wall.
+     * Method to check if the planned head elements of the snakes hit each other, step by step (once every plan is
+     * checked by <code>collide()</code>). The first element which hit is recorded in the plan.
+     * <p>
+     * <p>At each step, the element of each plan not stopped yet is tested with the elements of the other plans until
+     * this step. The elements after the hit of a plan are never added to its body, so they are never tested: a snake
+     * only hit the heads really added. Two heads hitting at the same step both hit.</p>
      *
-     * @param head The head of the body which is edited.
+     * @param snakes The snakes in game (the plan of a dead snake is empty).
+     */
+    static void collidePlans(List<Snake> snakes) {
+        int steps = 0;
+        for(int i = 0 ; i < snakes.size() ; i++)
+            steps = Math.max(steps, snakes.get(i).getMovement().getPlan().size());
+
+        for(int k = 0 ; k < steps ; k++) {
+            for(int i = 0 ; i < snakes.size() ; i++) {
+                Plan plan = snakes.get(i).getMovement().getPlan();
+                if(k >= plan.size() || (plan.getHit() != Plan.NONE && plan.getHit() <= k))
+                    continue;
+
+                float x = plan.getX(k);
+                float y = plan.getY(k);
+                float diameter = plan.getDiameter(k);
+
+                for(int j = 0 ; j < snakes.size() && plan.getHit() != k ; j++) {
+                    if(j == i)
+                        continue;
+
+                    Movement other = snakes.get(j).getMovement();
+                    Plan next = other.getPlan();
+
+                    // The elements of the other plan added until this step
+                    int end = Math.min(k, next.size() - 1);
+                    if(next.getHit() != Plan.NONE)
+                        end = Math.min(end, next.getHit());
+
+                    for(int m = 0 ; m <= end ; m++) {
+                        float size = next.getDiameter(m);
+                        if(overlaps(x, y, diameter, next.getX(m), next.getY(m), size, size)) {
+                            plan.hit(k, other);
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to add a planned element as the new head of the body (and to the collision structure).
      *
-     * @throws GameSizeException If the GameSize is not set
+     * @param k The index of the element in the plan.
      */
-    public void throughWall(RectangularShape head) throws GameSizeException {
-        Rectangle bounds = head.getBounds();
+    void append(int k) {
+        float diameter = this.plan.getDiameter(k);
 
-        if(gameSize == null)
-            throw new GameSizeException();
+        this.move.addLast(this.plan.getX(k), this.plan.getY(k), diameter);
+        this.last++;
+        this.world.insert(this, this.last, this.plan.getX(k), this.plan.getY(k), diameter);
+    }
 
-        if(bounds.getX() <= gameSize.getX()) {
-            bounds.x = (int) gameSize.getX() + (int) gameSize.getWidth() - (int) bounds.getWidth() - 1;
-        }
-        if(bounds.getY() <= gameSize.getY()) {
-            bounds.y = (int) gameSize.getY() + (int) gameSize.getHeight() - (int) bounds.getHeight() - 1;
+    /**
+     * Method to end a move of the body: every other time, the queue element is removed.
+     *
+     * @param erase The list of element erased from the snake body (null if not needed).
+     */
+    void shrink(List<RectangularShape> erase) {
+        this.isIncreased = !this.isIncreased;
+
+        // Every other time, the body size is increased.
+        if(!this.isIncreased) {
+            if(erase != null)
+                erase.add(this.move.get(0));
+            this.pop();
         }
+    }
+
+    /**
+     * Method to remove the queue element from the body (and from the collision structure).
+     */
+    private void pop() {
+        long queue = this.last - this.move.size() + 1;
 
-        if(bounds.getX() + bounds.getWidth() > gameSize.getX() + gameSize.getWidth() - 1) {
-            bounds.x = (int) gameSize.getX() + 1;
+        this.world.remove(this, queue, this.move.getX(0), this.move.getY(0), this.move.getDiameter(0));
+        this.move.removeFirst();
+    }
+
+    /**
+     * Method to get the opposite position of an element on one axis, when it hit a wall.
+     *
+     * @param position The position of the element (left or top).
+     * @param size     The diameter of the element.
+     * @param origin   The position of the game (left or top).
+     * @param length   The length of the game (width or height).
+     *
+     * @return The position after going through the wall (the same if no wall is hit on this axis).
+     */
+    private static float through(float position, float size, double origin, double length) {
+        if(position <= origin) {
+            position = (int) origin + (int) length - size - 1;
         }
-        if(bounds.getY() + bounds.getHeight() > gameSize.getY() + gameSize.getHeight() - 1) {
-            bounds.y = (int) gameSize.getY() + 1;
+
+        if(position + size > origin + length - 1) {
+            position = (int) origin + 1;
         }
 
-        head.setFrame(bounds);
+        return position;
     }
 
     /**
      * Clean the Body element. Keep only the head of the body
      *
-     * @param erase The list of element erased from the snake body.
+     * @param erase The list of element erased from the snake body (null if not needed).
      */
     public void clean(List<RectangularShape> erase) {
-        if(erase == null)
-            throw new NullPointerException();
+        if(this.move.size() == 1)
+            return;
+
+        if(erase != null)
+            erase.addAll(this.move);
+
+        while(this.move.size() > 1)
+            this.pop();
+    }
 
+    /**
+     * Clean the Body element without removing them from the collision structure one by one: the world clears it at
+     * once (see <code>World.cleanAll</code>). Keep only the head of the body.
+     *
+     * @param erase The list of element erased from the snake body (null if not needed).
+     */
+    void cut(List<RectangularShape> erase) {
         if(this.move.size() == 1)
             return;
 
-        erase.addAll(this.move);
+        if(erase != null)
+            erase.addAll(this.move);
 
-        RectangularShape head = this.move.getLast();
-        this.move.clear();
-        this.move.add(head);
+        this.move.keepLast();
+    }
+
+    /**
+     * Add all the body elements to the collision structure.
+     */
+    void register() {
+        long first = this.last - this.move.size() + 1;
+        for(int i = 0 ; i < this.move.size() ; i++)
+            this.world.insert(this, first + i, this.move.getX(i), this.move.getY(i), this.move.getDiameter(i));
+    }
+
+    /**
+     * Remove all the body elements from the collision structure. The body can not hit (or be hit) anymore.
+     */
+    void release() {
+        long first = this.last - this.move.size() + 1;
+        for(int i = 0 ; i < this.move.size() ; i++)
+            this.world.remove(this, first + i, this.move.getX(i), this.move.getY(i), this.move.getDiameter(i));
     }
-}
+}
\ No newline at end of file
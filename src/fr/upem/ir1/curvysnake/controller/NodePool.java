@@ -0,0 +1,196 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import java.util.Arrays;
+
+/**
+ * This class represent a pool of nodes linked by index, shared by the grids and the timer of the game
+ * (<code>SpatialHash</code>, <code>BonusGrid</code>, <code>BonusTimer</code>).
+ * <p>
+ * <p>A node is only an index: the pool keeps the link to the next node (in a chain of the owner, or in the free list),
+ * and the owner keeps the values of the node in its own primitive arrays, increased with the pool. No object is
+ * created once the pool is big enough.</p>
+ * <p>
+ * <p>The pool also gives the cell and bucket of a position, for the grids hashing their cells into a fixed number of
+ * buckets.</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ */
+final class NodePool {
+
+    /**
+     * Marker of the end of a chain.
+     */
+    static final int NONE = -1;
+
+    /**
+     * This interface represent the owner arrays increased with the pool.
+     */
+    interface Resizer {
+
+        /**
+         * Method to increase the arrays of the owner.
+         *
+         * @param capacity The new capacity of the pool.
+         */
+        void resize(int capacity);
+    }
+
+    /**
+     * Arrays of the owner increased with the pool.
+     */
+    private final Resizer resizer;
+    /**
+     * Next node in the same chain (or in the free list).
+     */
+    private int[] next;
+    /**
+     * First free node.
+     */
+    private int free = NONE;
+    /**
+     * Number of nodes ever used (the nodes after are free too).
+     */
+    private int used = 0;
+
+    /**
+     * Constructor of the pool. The arrays of the owner are created with the initial capacity.
+     *
+     * @param capacity The initial capacity of the pool.
+     * @param resizer  The arrays of the owner increased with the pool.
+     */
+    NodePool(int capacity, Resizer resizer) {
+        this.resizer = resizer;
+        this.next = new int[capacity];
+        resizer.resize(capacity);
+    }
+
+    /**
+     * Method to get a free node (the pool is increased if needed).
+     *
+     * @return The free node index.
+     */
+    int node() {
+        if(this.free != NONE) {
+            int node = this.free;
+            this.free = this.next[node];
+            return node;
+        }
+
+        if(this.used == this.next.length) {
+            int capacity = this.next.length * 2;
+            this.next = Arrays.copyOf(this.next, capacity);
+            this.resizer.resize(capacity);
+        }
+
+        return this.used++;
+    }
+
+    /**
+     * Method to give back a node to the free list. The owner forgets the references of the node itself.
+     *
+     * @param node The node index.
+     */
+    void release(int node) {
+        this.next[node] = this.free;
+        this.free = node;
+    }
+
+    /**
+     * Method to give back all the nodes at once: the chains are not read (the owner must forget them).
+     */
+    void reset() {
+        this.free = NONE;
+        this.used = 0;
+    }
+
+    /**
+     * Method to get the node following another one in its chain.
+     *
+     * @param node The node index.
+     *
+     * @return The next node, or NONE at the end of the chain.
+     */
+    int next(int node) {
+        return this.next[node];
+    }
+
+    /**
+     * Method to set the node following another one in its chain.
+     *
+     * @param node      The node index.
+     * @param following The next node, or NONE at the end of the chain.
+     */
+    void link(int node, int following) {
+        this.next[node] = following;
+    }
+
+    /**
+     * Method to get the number of nodes ever used since the last reset (the nodes after were never given).
+     *
+     * @return The number of nodes used.
+     */
+    int used() {
+        return this.used;
+    }
+
+    /**
+     * Method to get the number of nodes stored before the pool is increased.
+     *
+     * @return The size of the pool.
+     */
+    int capacity() {
+        return this.next.length;
+    }
+
+    /**
+     * Method to get the cell coordinate of a position.
+     *
+     * @param position The position (x or y).
+     * @param cellSize The width (and height) of a cell.
+     *
+     * @return The cell coordinate.
+     */
+    static int cell(double position, int cellSize) {
+        return (int) Math.floor(position / cellSize);
+    }
+
+    /**
+     * Method to get the bucket of a cell.
+     *
+     * @param cx      The cell x coordinate.
+     * @param cy      The cell y coordinate.
+     * @param buckets The number of buckets (power of two).
+     *
+     * @return The bucket index.
+     */
+    static int hash(int cx, int cy, int buckets) {
+        return (cx * 73856093 ^ cy * 19349663) & (buckets - 1);
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * This class represent the static obstacles of a game board (walls inside the board), loaded from a map.
+ * <p>
+ * <p>The board is split in square cells, and each cell is an obstacle or not (one bit by cell). A map can not be
+ * modified once loaded: it is shared by all the games using it, at the same time, without any copy. A head only tests
+ * the few cells it covers, whatever the number of obstacles.</p>
+ * <p>
+ * <p>A map file is a text file, one line by row of cells: a <code>#</code> is an obstacle, any other character (or a
+ * missing one at the end of a line) is a free cell.</p>
+ * <pre>
+ * ##########
+ * #........#
+ * #...##...#
+ * #........#
+ * ##########
+ * </pre>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see World
+ */
+public final class ObstacleMap {
+
+    /**
+     * Character of an obstacle in a map file.
+     */
+    public static final char OBSTACLE = '#';
+
+    /**
+     * Width (and height) of a cell.
+     */
+    private final int cellSize;
+    /**
+     * Number of cells on a row.
+     */
+    private final int columns;
+    /**
+     * Number of rows.
+     */
+    private final int rows;
+    /**
+     * Obstacle bit of each cell (row by row).
+     */
+    private final long[] cells;
+
+    /**
+     * Constructor of a map from the rows of cells.
+     *
+     * @param lines    The rows of cells (see the file format).
+     * @param cellSize The width (and height) of a cell.
+     *
+     * @throws IllegalArgumentException If the cell size is not positive, or if there is no cell.
+     */
+    public ObstacleMap(List<String> lines, int cellSize) throws IllegalArgumentException {
+        int columns = 0;
+        for(String line : lines)
+            columns = Math.max(columns, line.length());
+
+        if(cellSize <= 0 || columns == 0)
+            throw new IllegalArgumentException();
+
+        this.cellSize = cellSize;
+        this.columns = columns;
+        this.rows = lines.size();
+        this.cells = new long[(this.columns * this.rows + 63) >>> 6];
+
+        for(int row = 0 ; row < this.rows ; row++) {
+            String line = lines.get(row);
+            for(int column = 0 ; column < line.length() ; column++) {
+                if(line.charAt(column) == OBSTACLE) {
+                    int cell = row * this.columns + column;
+                    this.cells[cell >>> 6] |= 1L << cell;
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to load a map file (UTF-8).
+     *
+     * @param file     The map file.
+     * @param cellSize The width (and height) of a cell.
+     *
+     * @return The map.
+     *
+     * @throws IOException              If the file can not be read.
+     * @throws IllegalArgumentException If the cell size is not positive, or if the file has no cell.
+     */
+    public static ObstacleMap load(Path file, int cellSize) throws IOException, IllegalArgumentException {
+        return new ObstacleMap(Files.readAllLines(file, StandardCharsets.UTF_8), cellSize);
+    }
+
+    /**
+     * Method to get the width (and height) of a cell.
+     *
+     * @return The cell size.
+     */
+    public int getCellSize() {
+        return this.cellSize;
+    }
+
+    /**
+     * Method to get the number of cells on a row.
+     *
+     * @return The number of columns.
+     */
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * Method to get the number of rows.
+     *
+     * @return The number of rows.
+     */
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Method to know if a cell is an obstacle.
+     *
+     * @param column The column of the cell.
+     * @param row    The row of the cell.
+     *
+     * @return True if the cell is an obstacle, false else (or if the cell is outside the map).
+     */
+    public boolean isObstacle(int column, int row) {
+        if(column < 0 || row < 0 || column >= this.columns || row >= this.rows)
+            return false;
+
+        int cell = row * this.columns + column;
+        return (this.cells[cell >>> 6] & 1L << cell) != 0;
+    }
+
+    /**
+     * Method to check if a circle hit an obstacle. The positions are relative to the top left corner of the map.
+     *
+     * @param x        The left position of the circle.
+     * @param y        The top position of the circle.
+     * @param diameter The diameter of the circle.
+     *
+     * @return True if the circle hit an obstacle, false else.
+     */
+    public boolean intersects(float x, float y, float diameter) {
+        int minX = Math.max((int) Math.floor(x / this.cellSize), 0);
+        int minY = Math.max((int) Math.floor(y / this.cellSize), 0);
+        int maxX = Math.min((int) Math.floor((x + diameter) / this.cellSize), this.columns - 1);
+        int maxY = Math.min((int) Math.floor((y + diameter) / this.cellSize), this.rows - 1);
+
+        for(int row = minY ; row <= maxY ; row++) {
+            for(int column = minX ; column <= maxX ; column++) {
+                if(this.isObstacle(column, row) && Movement.overlaps(x, y, diameter, column * this.cellSize,
+                                                                      row * this.cellSize, this.cellSize,
+                                                                      this.cellSize))
+                    return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,399 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import java.awt.geom.RectangularShape;
+import java.util.Arrays;
+
+/**
+ * This class represent a picture of the game where every body element is drawn.
+ * <p>
+ * <p>Each pixel store the number of body elements covering it. Adding an element increase the pixels it covers, and
+ * removing it decrease them, so the overlapping elements are correctly managed. A collision test only read the pixels
+ * covered by the head: its cost does not depend on the body lengths.</p>
+ * <p>
+ * <p>The counters are bytes, so a picture costs one byte by pixel. A pixel covered by 255 elements or more (rare: many
+ * bodies crossing at the same place) keeps the value <code>OVERFLOW</code>, and its real count is stored in a small
+ * list of overflowed pixels: no increment is lost.</p>
+ * <p>
+ * <p>An element covers a pixel when it contains the pixel center. The test is so an approximation of the exact test
+ * between two circles (see <code>Movement.overlaps</code>): it may miss or add a collision at one pixel near.</p>
+ * <p>
+ * <p>The last elements of the body owning the head (its neck) are drawn again in a small mask around the head, and
+ * removed from the counters read. Each thread has its own mask, so the tests can be done at the same time.</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see Movement
+ */
+class OccupancyRaster implements CollisionIndex {
+
+    /**
+     * Value of a pixel whose count is stored in the list of overflowed pixels.
+     */
+    private static final int OVERFLOW = 0xFF;
+
+    /**
+     * Left border of the picture.
+     */
+    private final int originX;
+    /**
+     * Top border of the picture.
+     */
+    private final int originY;
+    /**
+     * Width of the picture.
+     */
+    private final int width;
+    /**
+     * Height of the picture.
+     */
+    private final int height;
+    /**
+     * Number of elements covering each pixel (line by line, unsigned), or <code>OVERFLOW</code>.
+     */
+    private final byte[] pixels;
+    /**
+     * Pixels covered by 255 elements or more (the first <code>overflowSize</code> are used).
+     */
+    private int[] overflowPixel = new int[4];
+    /**
+     * Number of elements covering each overflowed pixel.
+     */
+    private int[] overflowCount = new int[4];
+    /**
+     * Number of overflowed pixels.
+     */
+    private int overflowSize = 0;
+    /**
+     * Mask of the neck around the head (number of neck elements covering each pixel), one by thread.
+     */
+    private final ThreadLocal<int[]> mask = ThreadLocal.withInitial(() -> new int[0]);
+
+    /**
+     * Constructor of the picture. It cover the game size.
+     *
+     * @param gameSize The information about the game size.
+     */
+    OccupancyRaster(RectangularShape gameSize) {
+        this.originX = (int) Math.floor(gameSize.getX());
+        this.originY = (int) Math.floor(gameSize.getY());
+        this.width = (int) Math.ceil(gameSize.getX() + gameSize.getWidth()) - this.originX;
+        this.height = (int) Math.ceil(gameSize.getY() + gameSize.getHeight()) - this.originY;
+
+        this.pixels = new byte[this.width * this.height];
+    }
+
+    /**
+     * Method to draw a body element in the picture.
+     *
+     * @param body     The body owning the element.
+     * @param i        The index of the element in the body.
+     * @param x        The left position of the element.
+     * @param y        The top position of the element.
+     * @param diameter The diameter of the element.
+     */
+    @Override
+    public void insert(Movement body, long i, float x, float y, float diameter) {
+        this.stamp(x, y, diameter, 1);
+    }
+
+    /**
+     * Method to erase a body element from the picture.
+     *
+     * @param body     The body owning the element.
+     * @param i        The index of the element in the body.
+     * @param x        The left position of the element (as when inserted).
+     * @param y        The top position of the element (as when inserted).
+     * @param diameter The diameter of the element (as when inserted).
+     */
+    @Override
+    public void remove(Movement body, long i, float x, float y, float diameter) {
+        this.stamp(x, y, diameter, -1);
+    }
+
+    /**
+     * Method to check if a head cover a pixel used by a body element (except its own neck).
+     *
+     * @param body     The body owning the head.
+     * @param x        The left position of the head.
+     * @param y        The top position of the head.
+     * @param diameter The diameter of the head.
+     * @param last     The index of the head in its body.
+     *
+     * @return True if the head hit a body element, false else.
+     */
+    @Override
+    public boolean intersects(Movement body, float x, float y, float diameter, long last) {
+        int minX = Math.max((int) Math.floor(x), this.originX);
+        int minY = Math.max((int) Math.floor(y), this.originY);
+        int maxX = Math.min((int) Math.ceil(x + diameter), this.originX + this.width);
+        int maxY = Math.min((int) Math.ceil(y + diameter), this.originY + this.height);
+
+        if(minX >= maxX || minY >= maxY)
+            return false;
+
+        int maskWidth = maxX - minX;
+        int maskSize = maskWidth * (maxY - minY);
+        int[] mask = this.mask.get();
+        if(mask.length < maskSize) {
+            mask = new int[maskSize];
+            this.mask.set(mask);
+        } else {
+            Arrays.fill(mask, 0, maskSize, 0);
+        }
+
+        // Draw the neck (the head included if already added) in the mask
+        Trail trail = body.getMove();
+        long ahead = last - body.getLast();
+        int neck = (int) Math.max(0, Math.min(trail.size(), (int) diameter - ahead));
+        for(int n = trail.size() - neck ; n < trail.size() ; n++) {
+            float nx = trail.getX(n);
+            float ny = trail.getY(n);
+            float size = trail.getDiameter(n);
+
+            int top = Math.max(top(ny), minY);
+            int bottom = Math.min(bottom(ny, size), maxY - 1);
+            for(int py = top ; py <= bottom ; py++) {
+                int left = Math.max(left(nx, ny, size, py), minX);
+                int right = Math.min(right(nx, ny, size, py), maxX - 1);
+
+                for(int px = left ; px <= right ; px++)
+                    mask[(py - minY) * maskWidth + px - minX]++;
+            }
+        }
+
+        // Read the pixels covered by the head
+        int top = Math.max(top(y), minY);
+        int bottom = Math.min(bottom(y, diameter), maxY - 1);
+        for(int py = top ; py <= bottom ; py++) {
+            int left = Math.max(left(x, y, diameter, py), minX);
+            int right = Math.min(right(x, y, diameter, py), maxX - 1);
+
+            int line = (py - this.originY) * this.width - this.originX;
+            for(int px = left ; px <= right ; px++) {
+                if(this.count(line + px) > mask[(py - minY) * maskWidth + px - minX])
+                    return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Method to visit the elements of a body which may cover a rectangle. The picture does not know the elements, they
+     * are read in the body.
+     *
+     * @param body    The body owning the elements.
+     * @param x       The left position of the rectangle.
+     * @param y       The top position of the rectangle.
+     * @param width   The width of the rectangle.
+     * @param height  The height of the rectangle.
+     * @param visitor The action done on each element.
+     */
+    @Override
+    public void forEach(Movement body, double x, double y, double width, double height, ElementVisitor visitor) {
+        body.getMove().forEach(x, y, width, height, visitor);
+    }
+
+    /**
+     * Method to erase all the body elements from the picture.
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(this.pixels, (byte) 0);
+        this.overflowSize = 0;
+    }
+
+    /**
+     * Method to add a value to the counters of the pixels covered by an element.
+     *
+     * @param x        The left position of the element.
+     * @param y        The top position of the element.
+     * @param diameter The diameter of the element.
+     * @param value    The value to add (1 or -1).
+     */
+    private void stamp(float x, float y, float diameter, int value) {
+        int top = Math.max(top(y), this.originY);
+        int bottom = Math.min(bottom(y, diameter), this.originY + this.height - 1);
+
+        for(int py = top ; py <= bottom ; py++) {
+            int left = Math.max(left(x, y, diameter, py), this.originX);
+            int right = Math.min(right(x, y, diameter, py), this.originX + this.width - 1);
+
+            int line = (py - this.originY) * this.width - this.originX;
+            for(int px = left ; px <= right ; px++)
+                this.add(line + px, value);
+        }
+    }
+
+    /**
+     * Method to get the number of elements covering a pixel.
+     *
+     * @param pixel The position of the pixel in the picture.
+     *
+     * @return The number of elements covering the pixel.
+     */
+    private int count(int pixel) {
+        int count = this.pixels[pixel] & 0xFF;
+        if(count != OVERFLOW)
+            return count;
+
+        return this.overflowCount[this.overflow(pixel)];
+    }
+
+    /**
+     * Method to add a value to the counter of a pixel. The count is moved to the list of overflowed pixels when it
+     * reach <code>OVERFLOW</code>, and back to the picture when it goes under.
+     *
+     * @param pixel The position of the pixel in the picture.
+     * @param value The value to add (1 or -1).
+     */
+    private void add(int pixel, int value) {
+        int count = this.pixels[pixel] & 0xFF;
+        if(count != OVERFLOW) {
+            count += value;
+            if(count == OVERFLOW)
+                this.overflow(pixel, count);
+            this.pixels[pixel] = (byte) count;
+            return;
+        }
+
+        int i = this.overflow(pixel);
+        count = this.overflowCount[i] + value;
+        if(count >= OVERFLOW) {
+            this.overflowCount[i] = count;
+            return;
+        }
+
+        // Back under the overflow: the last overflowed pixel takes the free place
+        this.overflowSize--;
+        this.overflowPixel[i] = this.overflowPixel[this.overflowSize];
+        this.overflowCount[i] = this.overflowCount[this.overflowSize];
+        this.pixels[pixel] = (byte) count;
+    }
+
+    /**
+     * Method to add a pixel to the list of overflowed pixels. The list double its size when it is full.
+     *
+     * @param pixel The position of the pixel in the picture.
+     * @param count The number of elements covering the pixel.
+     */
+    private void overflow(int pixel, int count) {
+        if(this.overflowSize == this.overflowPixel.length) {
+            this.overflowPixel = Arrays.copyOf(this.overflowPixel, this.overflowSize * 2);
+            this.overflowCount = Arrays.copyOf(this.overflowCount, this.overflowSize * 2);
+        }
+
+        this.overflowPixel[this.overflowSize] = pixel;
+        this.overflowCount[this.overflowSize] = count;
+        this.overflowSize++;
+    }
+
+    /**
+     * Method to find a pixel in the list of overflowed pixels.
+     *
+     * @param pixel The position of the pixel in the picture (it must be overflowed).
+     *
+     * @return The position of the pixel in the list.
+     */
+    private int overflow(int pixel) {
+        int i = 0;
+        while(this.overflowPixel[i] != pixel)
+            i++;
+
+        return i;
+    }
+
+    /**
+     * Method to get the first line of pixels covered by an element.
+     *
+     * @param y The top position of the element.
+     *
+     * @return The first line (pixel center inside the element).
+     */
+    private static int top(float y) {
+        return (int) Math.ceil(y - 0.5);
+    }
+
+    /**
+     * Method to get the last line of pixels covered by an element.
+     *
+     * @param y        The top position of the element.
+     * @param diameter The diameter of the element.
+     *
+     * @return The last line (pixel center inside the element).
+     */
+    private static int bottom(float y, float diameter) {
+        return (int) Math.floor(y + diameter - 0.5);
+    }
+
+    /**
+     * Method to get the first pixel of a line covered by an element (a circle).
+     *
+     * @param x        The left position of the element.
+     * @param y        The top position of the element.
+     * @param diameter The diameter of the element.
+     * @param py       The line.
+     *
+     * @return The first pixel (pixel center inside the element), or a value greater than the last one if none.
+     */
+    private static int left(float x, float y, float diameter, int py) {
+        return (int) Math.ceil(x + diameter / 2.0 - halfWidth(y, diameter, py) - 0.5);
+    }
+
+    /**
+     * Method to get the last pixel of a line covered by an element (a circle).
+     *
+     * @param x        The left position of the element.
+     * @param y        The top position of the element.
+     * @param diameter The diameter of the element.
+     * @param py       The line.
+     *
+     * @return The last pixel (pixel center inside the element), or a value lower than the first one if none.
+     */
+    private static int right(float x, float y, float diameter, int py) {
+        return (int) Math.floor(x + diameter / 2.0 + halfWidth(y, diameter, py) - 0.5);
+    }
+
+    /**
+     * Method to get the half width of a circle at the center of a line of pixels.
+     *
+     * @param y        The top position of the element.
+     * @param diameter The diameter of the element.
+     * @param py       The line.
+     *
+     * @return The half width (negative if the line is outside the circle).
+     */
+    private static double halfWidth(float y, float diameter, int py) {
+        double dy = (py + 0.5 - y - diameter / 2.0) / (diameter / 2.0);
+        if(dy * dy > 1)
+            return -1;
+
+        return diameter / 2.0 * Math.sqrt(1 - dy * dy);
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import java.util.Arrays;
+
+/**
+ * This class represent the next head elements of a body during a tick, computed before any body is moved.
+ * <p>
+ * <p>The elements are stored in primitive arrays (position and diameter), reused from a tick to another. The plan
+ * also store the first element which hit (a wall or a body), the body moving only until this element.</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see Movement
+ */
+class Plan {
+
+    /**
+     * Marker of a plan without any hit.
+     */
+    static final int NONE = -1;
+
+    /**
+     * Left position of the elements.
+     */
+    private float[] x = new float[8];
+    /**
+     * Top position of the elements.
+     */
+    private float[] y = new float[8];
+    /**
+     * Diameter of the elements.
+     */
+    private float[] diameter = new float[8];
+    /**
+     * Number of elements.
+     */
+    private int size = 0;
+    /**
+     * Index of the first element which hit (NONE if none).
+     */
+    private int hit = NONE;
+    /**
+     * Body hit by the first element which hit (null for a wall).
+     */
+    private Movement hitBody = null;
+
+    /**
+     * Method to remove all the elements of the plan.
+     */
+    void clear() {
+        this.size = 0;
+        this.hit = NONE;
+        this.hitBody = null;
+    }
+
+    /**
+     * Method to add a new head element at the end of the plan.
+     *
+     * @param x        The left position of the element.
+     * @param y        The top position of the element.
+     * @param diameter The diameter of the element.
+     */
+    void add(float x, float y, float diameter) {
+        if(this.size == this.x.length) {
+            this.x = Arrays.copyOf(this.x, this.size * 2);
+            this.y = Arrays.copyOf(this.y, this.size * 2);
+            this.diameter = Arrays.copyOf(this.diameter, this.size * 2);
+        }
+
+        this.x[this.size] = x;
+        this.y[this.size] = y;
+        this.diameter[this.size] = diameter;
+        this.size++;
+    }
+
+    /**
+     * Method to get the number of elements.
+     *
+     * @return The number of elements.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Method to get the left position of an element.
+     *
+     * @param i The index of the element (0 is the first move).
+     *
+     * @return The left position.
+     */
+    float getX(int i) {
+        return this.x[i];
+    }
+
+    /**
+     * Method to get the top position of an element.
+     *
+     * @param i The index of the element (0 is the first move).
+     *
+     * @return The top position.
+     */
+    float getY(int i) {
+        return this.y[i];
+    }
+
+    /**
+     * Method to get the diameter of an element.
+     *
+     * @param i The index of the element (0 is the first move).
+     *
+     * @return The diameter.
+     */
+    float getDiameter(int i) {
+        return this.diameter[i];
+    }
+
+    /**
+     * Method to get the first element which hit.
+     *
+     * @return The index of the element, NONE if none.
+     */
+    int getHit() {
+        return this.hit;
+    }
+
+    /**
+     * Method to get the body hit by the first element which hit.
+     *
+     * @return The body hit, null for a wall (or if nothing is hit).
+     */
+    Movement getHitBody() {
+        return this.hitBody;
+    }
+
+    /**
+     * Method to set the element which hit, if no previous element already hit.
+     *
+     * @param i    The index of the element.
+     * @param body The body hit (null for a wall).
+     */
+    void hit(int i, Movement body) {
+        if(this.hit == NONE || i < this.hit) {
+            this.hit = i;
+            this.hitBody = body;
+        }
+    }
+}
@@ -26,12 +26,11 @@
 
 package fr.upem.ir1.curvysnake.controller;
 
-import fr.upem.ir1.curvysnake.controller.exception.BonusException;
 import fr.upem.ir1.curvysnake.controller.exception.CollisionException;
 import fr.upem.ir1.curvysnake.controller.exception.GameSizeException;
 
-import javax.naming.TimeLimitExceededException;
 import java.awt.*;
+import java.awt.geom.Rectangle2D;
 import java.awt.geom.RectangularShape;
 import java.util.*;
 import java.util.List;
@@ -58,230 +57,333 @@ public class Snake {
      * Aplha angle for the direction. It is a degree angle.
      */
     private int alpha = 0;
-    /**
-     * List of Snake actually in the race.
-     */
-    private static final List<Snake> SNAKE_LIST = new LinkedList<>();
     /**
      * Speed of the snake.
      */
     private final static int defaultSpeed = 3;
     /**
-     * List of Bonus actually in game.
+     * The game of the snake.
      */
-    private static BonusListInGame bonusListInGame = null;
-
+    private final World world;
     /**
      * List of element of the Snake body.
      */
     private final Movement movement;
     /**
-     * Bonus list active on snake.
+     * Effect of the bonus active on snake (their end is managed by the game, see <code>World</code>).
+     */
+    private final BonusEffect effect = new BonusEffect();
+    /**
+     * Result of the last move (reused).
+     */
+    private final MoveResult result = new MoveResult(this);
+    /**
+     * Bonus found by the head during a move (reused).
+     */
+    private final List<Entry<RectangularShape, Bonus>> found = new ArrayList<>();
+    /**
+     * Random generator of the holes in the body (split from the generator of the game).
      */
-    private final List<Bonus> bonusList = new LinkedList<>();
+    private SplittableRandom random;
 
     /**
      * Constructor of the class. Initialize the initial position and direction.
      *
+     * @param world The game of the Snake.
      * @param init  The initial position of the Snake.
-     * @param alpha The initial alpha direction of the Snake.
+     * @param alpha The initial alpha direction of the Snake (rounded to the nearest multiple of 5 degree).
      *
      * @throws IllegalArgumentException If the alpha angle is outside the limit (0 - 180 -- +/-).
      */
-    public Snake(Point init, int alpha) throws IllegalArgumentException {
+    public Snake(World world, Point init, int alpha) throws IllegalArgumentException {
         if(Math.abs(alpha) > 360)
             throw new IllegalArgumentException();
 
-        this.alpha = alpha;
+        this.world = world;
+        this.alpha = Heading.round(alpha);
 
-        this.movement = new Movement(init);
+        this.movement = new Movement(world, init);
 
-        SNAKE_LIST.add(this);
+        world.add(this);
     }
 
     /**
-     * Destructor of the reference in the Snake list. You need to used it, if the Snake is store for collision
-     * detection. But if this Snake is not used in collision detection, the method is useless.
-     *
-     * @param s The Snake to remove from the list of the Snake.
+     * Destructor of the reference in the Snake list of its game. You need to used it, if the Snake is store for
+     * collision detection. But if this Snake is not used in collision detection, the method is useless.
      *
      * @return True if the remove action is successful, false else.
      */
-    public static boolean destroy(Snake s) {
-        return SNAKE_LIST.remove(s);
+    public boolean destroy() {
+        return this.world.destroy(this);
     }
 
     /**
-     * Static method to get the information about the game size
+     * Method to set the random generator of the holes in the body (called by the game).
      *
-     * @return The information about the game size
+     * @param random The random generator.
      */
-    public static RectangularShape getGameSize() {
-        return Movement.getGameSize();
+    void setRandom(SplittableRandom random) {
+        this.random = random;
     }
 
     /**
-     * Static method to specify the information about the game size
+     * Method to get the game of the Snake.
      *
-     * @param rectangle New game size information
+     * @return The world the Snake is bound to.
      */
-    public static void setGameSize(RectangularShape rectangle) {
-        Movement.setGameSize(rectangle);
+    public World getWorld() {
+        return this.world;
     }
 
     /**
-     * Method to get the Bonus List actually in Game.
+     * Move the Snake
      *
-     * @return The BonusListInGame with all Bonus associated to a position.
-     */
-    public static BonusListInGame getBonusListInGame() {
-        return bonusListInGame;
-    }
-
-    /**
-     * Method to set the Bonus List actually in Game for all Snake.
+     * @param add   The list of element added with the snake body.
+     * @param erase The list of element erased from the snake body. The elements removed by an erase all are not
+     *              listed: the generation of the world is increased instead (see <code>World.getGeneration()</code>).
      *
-     * @param bonus The BonusListInGame for all Snake.
+     * @throws CollisionException       If collision with a wall or a snake (another or itself) is detected.
+     * @throws IllegalAccessException   If a bonus can not be affected to a snake (ex: erase all)
+     * @throws GameSizeException        If the GameSize is not set
+     * @throws IllegalArgumentException If "add" or "erase" are null.
+     * @see Movement
      */
-    public static void setBonusListInGame(BonusListInGame bonus) {
-        bonusListInGame = bonus;
+    public void move(List<RectangularShape> add, List<RectangularShape> erase)
+            throws CollisionException, IllegalAccessException, GameSizeException, IllegalArgumentException {
+        if(add == null || erase == null)
+            throw new NullPointerException();
+
+        if(!this.step(add, erase).isAlive())
+            throw new CollisionException();
     }
 
     /**
-     * Method to clean all Snake trace. This action keep only the head of the Snakes.
+     * Move the Snake, without keeping the elements added or erased. Once the body and the game are big enough, this
+     * action does not create any object.
      *
-     * @param erase The list of element erase by the clean action.
+     * @throws CollisionException     If collision with a wall or a snake (another or itself) is detected.
+     * @throws IllegalAccessException If a bonus can not be affected to a snake (ex: erase all)
+     * @throws GameSizeException      If the GameSize is not set
+     * @see Movement
      */
-    public static void cleanAll(List<RectangularShape> erase) {
-        SNAKE_LIST.forEach(snake -> {
-            snake.clean(erase);
-        });
+    public void move() throws CollisionException, IllegalAccessException, GameSizeException {
+        if(!this.step(null, null).isAlive())
+            throw new CollisionException();
     }
 
     /**
-     * Method to decrement all Snake bonus time.
+     * Move the Snake, without any exception for a collision. The result tells if the Snake is still alive (else the
+     * cause of its death) and the Bonus collected.
+     *
+     * @param add   The list of element added with the snake body (null if not needed).
+     * @param erase The list of element erased from the snake body (null if not needed).
+     *
+     * @return The result of the move (reused, valid until the next move).
+     *
+     * @throws GameSizeException If the GameSize is not set
+     * @see MoveResult
      */
-    public static void decrementAll() {
-        SNAKE_LIST.forEach(Snake::decrement);
+    public MoveResult tryMove(List<RectangularShape> add, List<RectangularShape> erase) throws GameSizeException {
+        return this.step(add, erase);
     }
 
     /**
-     * Method to detect if a position is not used by a Snake body element. The
+     * Move the Snake.
+     *
+     * @param add   The list of element added with the snake body (null if not needed).
+     * @param erase The list of element erased from the snake body (null if not needed).
      *
-     * @param position The position to test with all Snake.
+     * @return The result of the move.
      *
-     * @return True if the position is free, false else.
+     * @throws GameSizeException If the GameSize is not set
      */
-    public static boolean positionIsFree(RectangularShape position) {
-        for(Snake snake : SNAKE_LIST) if(snake.movement.intersects(position)) return false;
+    private MoveResult step(List<RectangularShape> add, List<RectangularShape> erase) throws GameSizeException {
+        this.result.clear();
+        this.plan();
+
+        Plan plan = this.movement.getPlan();
+        try {
+            for(int i = 0 ; i < plan.size() ; i++) {
+                this.movement.append(i);
+
+                // Check if the move generate a wall hit, or a collision with a snake
+                if(i == plan.getHit()) {
+                    this.result.hitWall();
+                    break;
+                }
+
+                Movement body = this.movement.hit();
+                if(body != null) {
+                    this.result.hitSnake(this.world.getSnake(body));
+                    break;
+                }
+
+                this.movement.shrink(erase);
+
+                if(add != null)
+                    add.add(this.getHead());
+                this.detectBonus(erase);
+            }
+        } finally {
+            plan.clear();
+        }
 
-        return true;
+        return this.result;
     }
 
     /**
-     * Method to get the Snake list actually in game.
+     * Method to compute the next head elements of the Snake for a move (with the bonus), without moving it.
      *
-     * @return An unmodifiable view of the snake list.
+     * @throws GameSizeException If the GameSize is not set
+     * @see Movement#plan(int, int, int, int, boolean)
      */
-    static List<Snake> getSnakeList() {
-        return Collections.unmodifiableList(SNAKE_LIST);
-    }
+    void plan() throws GameSizeException {
+        int speedBonus = defaultSpeed + this.effect.getSpeed();
+        int sizeBonus = this.effect.getSize();
+        int nextHope = this.effect.getNextHope();
 
-    /**
-     * Move the Snake
-     *
-     * @param add   The list of element added with the snake body.
-     * @param erase The list of element erased from the snake body.
-     *
-     * @throws CollisionException       If collision with a wall or a snake (another or itself) is detected.
-     * @throws IllegalAccessException   If a bonus can not be affected to a snake (ex: erase all)
-     * @throws GameSizeException        If the GameSize is not set
-     * @throws BonusException           If the BonusListInGame is not set
-     * @throws IllegalArgumentException If "add" or "erase" are null.
-     * @see Movement
-     */
-    public void move(List<RectangularShape> add, List<RectangularShape> erase)
-            throws CollisionException, IllegalAccessException, GameSizeException, BonusException, IllegalArgumentException {
-        if(add == null || erase == null)
-            throw new NullPointerException();
-
-        int speedBonus = defaultSpeed;
-        int sizeBonus = 0;
-        int nextHope = 0;
-
-        boolean wallThrough = false;
-
-        // Check all bonus
-        for(Bonus bonus : this.bonusList) {
-            speedBonus += bonus.speed();
-            sizeBonus += bonus.size();
-            nextHope += bonus.nextHope();
-
-            wallThrough = wallThrough || bonus.wallThrough();
-        }
+        boolean wallThrough = this.effect.isWallThrough();
 
         if(speedBonus < 1) speedBonus = 1;
         if(sizeBonus < -Movement.defaultDiameter + 5) sizeBonus = -Movement.defaultDiameter + 5;
         if(nextHope > 50) nextHope = 50;
-        if((int) (Math.random() * 25) == 13) nextHope = 0;
+        if(this.random.nextInt(25) == 13) nextHope = 0;
 
-        // create the movement of 'speed-1' move
-        for(int i = 0 ; i < speedBonus ; i++) {
+        Plan plan = this.movement.getPlan();
+        plan.clear();
+
+        // create the movement of 'speed-1' move, until a wall is hit
+        for(int i = 0 ; i < speedBonus && plan.getHit() == Plan.NONE ; i++) {
             // NextHope available only for the first move of this move action
             if(i != 0)
                 nextHope = 0;
 
-            this.movement.move(this.getDirection(), sizeBonus, nextHope, wallThrough, erase);
-
-            add.add(this.getHead());
-            this.detectBonus(add, erase);
+            this.movement.plan(Heading.x(this.alpha), Heading.y(this.alpha), sizeBonus, nextHope, wallThrough);
         }
     }
 
     /**
-     * Method to detect a head collision with a bonus
+     * Move the Snake along its plan (see <code>plan()</code>), until the element which hit (included). The hits must
+     * be already checked (see <code>Movement.collide()</code>).
      *
-     * @param add   The list of element added with the snake body.
-     * @param erase The list of element erased from the snake body.
+     * @param add   The list of element added with the snake body (null if not needed).
+     * @param erase The list of element erased from the snake body (null if not needed).
      *
-     * @throws BonusException           If the BonusListInGame is not set
-     * @throws IllegalArgumentException If "add" or "erase" are null.
+     * @return The result of the move (reused, valid until the next move).
      */
-    private void detectBonus(List<RectangularShape> add, List<RectangularShape> erase)
-            throws BonusException, IllegalAccessException {
-
-        if(erase == null)
-            throw new NullPointerException();
+    MoveResult advance(List<RectangularShape> add, List<RectangularShape> erase) {
+        this.result.clear();
+
+        Plan plan = this.movement.getPlan();
+        try {
+            for(int i = 0 ; i < plan.size() ; i++) {
+                this.movement.append(i);
+
+                // The head which hit is part of the body
+                if(add != null)
+                    add.add(this.getHead());
+
+                if(i == plan.getHit()) {
+                    if(plan.getHitBody() == null)
+                        this.result.hitWall();
+                    else
+                        this.result.hitSnake(this.world.getSnake(plan.getHitBody()));
+                    break;
+                }
+
+                this.movement.shrink(erase);
+                this.detectBonus(erase);
+            }
+        } finally {
+            plan.clear();
+        }
 
-        if(bonusListInGame == null)
-            throw new BonusException("The BonusListInGame is not set for Snake");
+        return this.result;
+    }
 
-        Entry<RectangularShape, Bonus> entry;
-        Iterator<Entry<RectangularShape, Bonus>> it = bonusListInGame.iterator();
-        while(it.hasNext()) {
-            entry = it.next();
+    /**
+     * Method to get the result of the last move.
+     *
+     * @return The result of the last move (reused).
+     */
+    public MoveResult getResult() {
+        return this.result;
+    }
 
-            if(entry.getKey().intersects(this.getHead().getBounds())) {
-                // Delete the bonus display
+    /**
+     * Method to detect a head collision with a bonus
+     *
+     * @param erase The list of element erased from the snake body (null if not needed).
+     *
+     */
+    void detectBonus(List<RectangularShape> erase) {
+        BonusListInGame bonusListInGame = this.world.getBonusListInGame();
+
+        // Bounds of the head (same as getBounds())
+        Trail trail = this.movement.getMove();
+        int head = trail.size() - 1;
+        int x = (int) Math.floor(trail.getX(head));
+        int y = (int) Math.floor(trail.getY(head));
+        int width = (int) Math.ceil(trail.getX(head) + trail.getDiameter(head)) - x;
+        int height = (int) Math.ceil(trail.getY(head) + trail.getDiameter(head)) - y;
+
+        // Only the Bonus near the head are tested
+        this.found.clear();
+        bonusListInGame.intersecting(x, y, width, height, this.found);
+
+        for(int i = 0 ; i < this.found.size() ; i++) {
+            Entry<RectangularShape, Bonus> entry = this.found.get(i);
+
+            // Delete the bonus display
+            if(erase != null)
                 erase.add(entry.getKey());
-                // if it is an erase all, erase all body element
-                this.addBonus(entry.getValue(), erase);
-                it.remove();
-
-            }
+            bonusListInGame.remove(entry);
+            this.result.collect(entry.getValue());
+            // if it is an erase all, erase all body element (not listed, the generation of the world is increased)
+            this.addBonus(entry.getValue(), null);
         }
+    }
 
+    /**
+     * Method to get the body of the snake (with its collision management).
+     *
+     * @return The Movement of the snake.
+     */
+    Movement getMovement() {
+        return this.movement;
     }
 
     /**
      * Method to get the List of Movement.
      *
-     * @return The Ellipse2D.Float position List.
+     * @return The Ellipse2D.Float position List (a view of the body).
      */
-    Deque<RectangularShape> getMove() {
+    Trail getMove() {
         return this.movement.getMove();
     }
 
+    /**
+     * Method to visit the body elements which may cover an area (to display them again), without creating any shape.
+     * The elements are found with the collision detection of the game: with a grid, the cost depends on the size of
+     * the area, not on the body length.
+     *
+     * @param area    The area.
+     * @param visitor The action done on each element (an element may be visited more than once).
+     */
+    public void forEachElement(Rectangle2D area, ElementVisitor visitor) {
+        this.world.getIndex().forEach(this.movement, area.getX(), area.getY(), area.getWidth(), area.getHeight(),
+                                      visitor);
+    }
+
+    /**
+     * Method to get the body of the snake (to display it).
+     *
+     * @return An unmodifiable view of the body elements, from the queue to the head.
+     */
+    public Collection<RectangularShape> getBody() {
+        return Collections.unmodifiableCollection(this.movement.getMove());
+    }
+
     /**
      * Action of the user to change (<code>LEFT</code> or <code>RIGHT</code>) the direction (step by step only). The
      * direction is managed by the bonus action too.
@@ -292,16 +394,11 @@ public class Snake {
      * @throws IllegalAccessException If a bonus can not be affected to a snake (ex: erase all)
      */
     public void changeDirection(MoveTo m, boolean inTurn) throws IllegalAccessException {
-        boolean inverse = true;
+        // Each inverse direction bonus inverse the previous ones
+        boolean inverse = !this.effect.isInverseDirection();
 
         int angle = inTurn ? 10 : 15;
 
-        // Check only for inverse direction bonus
-        for(Bonus bonus : this.bonusList) {
-            if(bonus.inverseDirection())
-                inverse = !inverse;
-        }
-
         if(inverse) {
             if(m == MoveTo.LEFT) m = MoveTo.RIGHT;
             else if(m == MoveTo.RIGHT) m = MoveTo.LEFT;
@@ -328,14 +425,15 @@ public class Snake {
      * <p>The <code>Bonus</code> can be empty (null).</p>
      *
      * @param b     The new bonus for the snake
-     * @param erase The list of element erased from the snake body.
+     * @param erase The list of element erased from the snake body (null if not needed).
      */
     public void addBonus(Bonus b, List<RectangularShape> erase) {
         if(b != null) {
             if(b.eraseAll()) {
-                Snake.cleanAll(erase);
+                this.world.cleanAll(erase);
             } else {
-                this.bonusList.add(b);
+                this.effect.add(b);
+                this.world.getTimer().schedule(this, b, b.getDuration());
             }
         }
     }
@@ -359,25 +457,18 @@ public class Snake {
     }
 
     /**
-     * Decrement bonus time and delete if time is exceeded
+     * Remove a bonus at the end of its time.
+     *
+     * @param b The bonus ending (previously added).
      */
-    private void decrement() {
-        Iterator<Bonus> it = this.bonusList.iterator();
-        while(it.hasNext()) {
-            Bonus b = it.next();
-
-            try {
-                b.decrement();
-            } catch(TimeLimitExceededException e) {
-                it.remove();
-            }
-        }
+    void expire(Bonus b) {
+        this.effect.remove(b);
     }
 
     /**
      * Clean the Body element. Keep only the head of the body
      *
-     * @param erase The list of element erased from the snake body.
+     * @param erase The list of element erased from the snake body (null if not needed).
      */
     public void clean(List<RectangularShape> erase) {
         this.movement.clean(erase);
@@ -389,8 +480,9 @@ public class Snake {
      * @return The Point which is representing the direction.
      */
     public Point getDirection() {
-        int x = (int) Math.round(Math.cos(this.alpha * 0.017453292519943) * Movement.defaultDiameter);
-        int y = (int) Math.round(Math.sin(this.alpha * 0.017453292519943) * Movement.defaultDiameter);
+        // The table store the move of a step (half a body element)
+        int x = Math.round(2 * Heading.toPixel(Heading.x(this.alpha)));
+        int y = Math.round(2 * Heading.toPixel(Heading.y(this.alpha)));
 
         return new Point(x, y);
     }
@@ -0,0 +1,336 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import java.util.Arrays;
+
+/**
+ * This class represent a uniform grid of all the body elements of all the Snake in game.
+ * <p>
+ * <p>The world is split in square cells. Each body element is stored in every cell it covers. A cell is not
+ * allocated: its coordinates are hashed into a fixed number of buckets, so the grid does not depend on the game size.
+ * A collision test only visits the few buckets covered by the tested head.</p>
+ * <p>
+ * <p>The elements are stored in primitive arrays, linked by index through a <code>NodePool</code>, so no object is
+ * created once the pool is big enough.</p>
+ * <p>
+ * <p>Each bucket is tagged with the generation of the grid when it was filled. Removing all the elements only starts
+ * a new generation and empties the pool: the buckets of an older generation are read as empty, and their nodes are
+ * reused without being read (only their body reference is forgotten).</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see Movement
+ */
+class SpatialHash implements CollisionIndex {
+
+    /**
+     * Number of buckets (power of two).
+     */
+    private static final int BUCKETS = 1 << 12;
+    /**
+     * Marker of the end of a bucket chain.
+     */
+    private static final int NONE = NodePool.NONE;
+
+    /**
+     * Width (and height) of a cell.
+     */
+    private final int cellSize;
+    /**
+     * First node of each bucket.
+     */
+    private final int[] bucket = new int[BUCKETS];
+    /**
+     * Generation of the grid when each bucket was filled (the bucket is empty if older).
+     */
+    private final int[] stamp = new int[BUCKETS];
+    /**
+     * Generation of the grid (increased by each <code>clear()</code>).
+     */
+    private int generation = 0;
+
+    /**
+     * Pool of the nodes (linked in the buckets).
+     */
+    private final NodePool pool;
+    /**
+     * Body which own the node element.
+     */
+    private Movement[] owner;
+    /**
+     * Index of the element in the owner body (see <code>Movement</code>).
+     */
+    private long[] index;
+    /**
+     * Left position of the element.
+     */
+    private float[] x;
+    /**
+     * Top position of the element.
+     */
+    private float[] y;
+    /**
+     * Diameter of the element.
+     */
+    private float[] diameter;
+
+    /**
+     * Constructor of the grid.
+     *
+     * @param cellSize The width (and height) of a cell.
+     */
+    SpatialHash(int cellSize) {
+        if(cellSize <= 0)
+            throw new IllegalArgumentException();
+
+        this.cellSize = cellSize;
+        Arrays.fill(this.bucket, NONE);
+
+        this.pool = new NodePool(256, this::allocate);
+    }
+
+    /**
+     * Method to add a body element to the grid.
+     *
+     * @param body     The body owning the element.
+     * @param i        The index of the element in the body.
+     * @param x        The left position of the element.
+     * @param y        The top position of the element.
+     * @param diameter The diameter of the element.
+     */
+    @Override
+    public void insert(Movement body, long i, float x, float y, float diameter) {
+        int minX = this.cell(x);
+        int minY = this.cell(y);
+        int maxX = this.cell(x + diameter);
+        int maxY = this.cell(y + diameter);
+
+        for(int cx = minX ; cx <= maxX ; cx++) {
+            for(int cy = minY ; cy <= maxY ; cy++) {
+                int node = this.pool.node();
+                int b = NodePool.hash(cx, cy, BUCKETS);
+
+                this.owner[node] = body;
+                this.index[node] = i;
+                this.x[node] = x;
+                this.y[node] = y;
+                this.diameter[node] = diameter;
+
+                this.pool.link(node, this.head(b));
+                this.bucket[b] = node;
+                this.stamp[b] = this.generation;
+            }
+        }
+    }
+
+    /**
+     * Method to remove a body element from the grid.
+     *
+     * @param body     The body owning the element.
+     * @param i        The index of the element in the body.
+     * @param x        The left position of the element (as when inserted).
+     * @param y        The top position of the element (as when inserted).
+     * @param diameter The diameter of the element (as when inserted).
+     */
+    @Override
+    public void remove(Movement body, long i, float x, float y, float diameter) {
+        int minX = this.cell(x);
+        int minY = this.cell(y);
+        int maxX = this.cell(x + diameter);
+        int maxY = this.cell(y + diameter);
+
+        for(int cx = minX ; cx <= maxX ; cx++) {
+            for(int cy = minY ; cy <= maxY ; cy++) {
+                int b = NodePool.hash(cx, cy, BUCKETS);
+
+                int previous = NONE;
+                for(int node = this.head(b) ; node != NONE ; node = this.pool.next(node)) {
+                    if(this.owner[node] == body && this.index[node] == i) {
+                        if(previous == NONE) this.bucket[b] = this.pool.next(node);
+                        else this.pool.link(previous, this.pool.next(node));
+
+                        this.release(node);
+                        break;
+                    }
+                    previous = node;
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to check if a head hit a body element stored in the grid.
+     * <p>
+     * <p>The last elements of the body owning the head are ignored (as many as the head width), else the head would
+     * always hit its own neck.</p>
+     *
+     * @param body     The body owning the head.
+     * @param x        The left position of the head.
+     * @param y        The top position of the head.
+     * @param diameter The diameter of the head.
+     * @param last     The index of the head in its body.
+     *
+     * @return True if the head hit a body element, false else.
+     */
+    @Override
+    public boolean intersects(Movement body, float x, float y, float diameter, long last) {
+        int minX = this.cell(x);
+        int minY = this.cell(y);
+        int maxX = this.cell(x + diameter);
+        int maxY = this.cell(y + diameter);
+
+        for(int cx = minX ; cx <= maxX ; cx++) {
+            for(int cy = minY ; cy <= maxY ; cy++) {
+                for(int node = this.head(NodePool.hash(cx, cy, BUCKETS)) ; node != NONE ; node = this.pool.next(node)) {
+                    if(this.owner[node] == body && last - this.index[node] + 1 <= diameter)
+                        continue;
+
+                    float size = this.diameter[node];
+                    if(Movement.overlaps(x, y, diameter, this.x[node], this.y[node], size, size))
+                        return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Method to visit the elements of a body stored in the cells covered by a rectangle. The cost depends on the size
+     * of the rectangle, not on the body length.
+     * <p>
+     * <p>An element stored in several cells is visited only from its first cell covered by the rectangle.</p>
+     *
+     * @param body    The body owning the elements.
+     * @param x       The left position of the rectangle.
+     * @param y       The top position of the rectangle.
+     * @param width   The width of the rectangle.
+     * @param height  The height of the rectangle.
+     * @param visitor The action done on each element.
+     */
+    @Override
+    public void forEach(Movement body, double x, double y, double width, double height, ElementVisitor visitor) {
+        int minX = this.cell(x);
+        int minY = this.cell(y);
+        int maxX = this.cell(x + width);
+        int maxY = this.cell(y + height);
+
+        for(int cx = minX ; cx <= maxX ; cx++) {
+            for(int cy = minY ; cy <= maxY ; cy++) {
+                for(int node = this.head(NodePool.hash(cx, cy, BUCKETS)) ; node != NONE ; node = this.pool.next(node)) {
+                    if(this.owner[node] != body)
+                        continue;
+
+                    float nx = this.x[node];
+                    float ny = this.y[node];
+                    float size = this.diameter[node];
+                    if(nx > x + width || ny > y + height || nx + size < x || ny + size < y)
+                        continue;
+
+                    if(Math.max(this.cell(nx), minX) == cx && Math.max(this.cell(ny), minY) == cy)
+                        visitor.visit(nx, ny, size);
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to remove all the body elements: a new generation is started and the pool is empty. The buckets are not
+     * read, only the bodies referenced by the used nodes are forgotten (so a dead body can be garbage-collected).
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(this.owner, 0, this.pool.used(), null);
+
+        this.generation++;
+        this.pool.reset();
+    }
+
+    /**
+     * Method to get the number of nodes stored before the pool is increased.
+     *
+     * @return The size of the node pool.
+     */
+    int capacity() {
+        return this.pool.capacity();
+    }
+
+    /**
+     * Method to get the first node of a bucket.
+     *
+     * @param b The bucket index.
+     *
+     * @return The first node, or NONE if the bucket is empty (or filled by an older generation).
+     */
+    private int head(int b) {
+        return this.stamp[b] == this.generation ? this.bucket[b] : NONE;
+    }
+
+    /**
+     * Method to get the cell coordinate of a position.
+     *
+     * @param position The position (x or y).
+     *
+     * @return The cell coordinate.
+     */
+    private int cell(double position) {
+        return NodePool.cell(position, this.cellSize);
+    }
+
+    /**
+     * Method to give back a node to the free list.
+     *
+     * @param node The node index.
+     */
+    private void release(int node) {
+        this.owner[node] = null;
+        this.pool.release(node);
+    }
+
+    /**
+     * Method to increase the arrays of the nodes with the pool.
+     *
+     * @param capacity The new capacity of the pool.
+     */
+    private void allocate(int capacity) {
+        if(this.owner == null) {
+            this.owner = new Movement[capacity];
+            this.index = new long[capacity];
+            this.x = new float[capacity];
+            this.y = new float[capacity];
+            this.diameter = new float[capacity];
+            return;
+        }
+
+        this.owner = Arrays.copyOf(this.owner, capacity);
+        this.index = Arrays.copyOf(this.index, capacity);
+        this.x = Arrays.copyOf(this.x, capacity);
+        this.y = Arrays.copyOf(this.y, capacity);
+        this.diameter = Arrays.copyOf(this.diameter, capacity);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class decide when the game ticks must be done, with a fixed time between two ticks.
+ * <p>
+ * <p>The time elapsed since the last call is accumulated, and each full period give a tick to do. If the game is late
+ * (slow display, busy system), the missing ticks are done to catch up, but no more than a maximum number at once: the
+ * remaining late time is forgotten (the game slow down instead of freezing the display).</p>
+ * <p>
+ * <p>Between two ticks, the caller wait until the next deadline (see <code>remaining</code> or <code>sleep</code>)
+ * instead of looping.</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see GameEngine
+ */
+public class TickScheduler {
+
+    /**
+     * Time between two ticks (nanosecond).
+     */
+    private final long period;
+    /**
+     * Maximum number of ticks done at once to catch up.
+     */
+    private final int maxCatchUp;
+    /**
+     * Last time the elapsed time was accumulated (nanosecond).
+     */
+    private long last;
+    /**
+     * Elapsed time not yet consumed by a tick (nanosecond).
+     */
+    private long accumulator = 0;
+    /**
+     * Number of ticks forgotten because the game was too late.
+     */
+    private long skipped = 0;
+
+    /**
+     * Constructor of the scheduler. The first tick is due after one period.
+     *
+     * @param period     The time between two ticks.
+     * @param unit       The unit of the period.
+     * @param maxCatchUp The maximum number of ticks done at once to catch up (at least 1).
+     *
+     * @throws IllegalArgumentException If the period is not positive, or the maximum is lower than 1.
+     */
+    public TickScheduler(long period, TimeUnit unit, int maxCatchUp) throws IllegalArgumentException {
+        if(period <= 0 || maxCatchUp < 1)
+            throw new IllegalArgumentException();
+
+        this.period = unit.toNanos(period);
+        this.maxCatchUp = maxCatchUp;
+        this.last = System.nanoTime();
+    }
+
+    /**
+     * Method to get the number of ticks to do now. They are considered done once returned.
+     *
+     * @return The number of ticks to do (between 0 and the maximum catch up).
+     */
+    public int due() {
+        long now = System.nanoTime();
+        this.accumulator += now - this.last;
+        this.last = now;
+
+        long ticks = this.accumulator / this.period;
+        this.accumulator -= ticks * this.period;
+
+        if(ticks > this.maxCatchUp) {
+            this.skipped += ticks - this.maxCatchUp;
+            ticks = this.maxCatchUp;
+        }
+
+        return (int) ticks;
+    }
+
+    /**
+     * Method to get the time until the next tick.
+     *
+     * @param unit The unit of the result.
+     *
+     * @return The time until the next tick (rounded up, 0 if a tick is due).
+     */
+    public long remaining(TimeUnit unit) {
+        long remaining = this.period - this.accumulator - (System.nanoTime() - this.last);
+        if(remaining <= 0)
+            return 0;
+
+        long nanos = unit.toNanos(1);
+        return (remaining + nanos - 1) / nanos;
+    }
+
+    /**
+     * Method to wait until the next tick.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public void sleep() throws InterruptedException {
+        long remaining = this.remaining(TimeUnit.NANOSECONDS);
+        if(remaining > 0)
+            TimeUnit.NANOSECONDS.sleep(remaining);
+    }
+
+    /**
+     * Method to get the number of ticks forgotten because the game was too late.
+     *
+     * @return The number of ticks forgotten.
+     */
+    public long getSkipped() {
+        return this.skipped;
+    }
+}
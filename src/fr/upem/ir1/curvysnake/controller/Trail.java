@@ -0,0 +1,469 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.RectangularShape;
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This class represent the list of body elements of a snake (circles), from the queue to the head.
+ * <p>
+ * <p>The elements are stored in a ring of primitive arrays (position and diameter), increased when full. Adding a head
+ * and removing the queue do not create any object, and the elements are read by index:</p>
+ * <ul>
+ * <li><code>0</code> is the queue</li>
+ * <li><code>size() - 1</code> is the head</li>
+ * </ul>
+ * <p>
+ * <p>The bounds of the elements are kept up to date: a new head extends them, and the removal of an element on the
+ * border only marks them as loose. Loose bounds still contain every element, they are fitted again only when a test
+ * can not be decided by them (see <code>mayIntersect</code>).</p>
+ * <p>
+ * <p>The class is also a view of the body as a <code>Collection</code> of <code>RectangularShape</code>. Each element
+ * read by this way is a new <code>Ellipse2D.Float</code>.</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see Movement
+ */
+class Trail extends AbstractCollection<RectangularShape> {
+
+    /**
+     * Left position of the elements.
+     */
+    private float[] x;
+    /**
+     * Top position of the elements.
+     */
+    private float[] y;
+    /**
+     * Diameter of the elements.
+     */
+    private float[] diameter;
+    /**
+     * Position of the queue in the arrays.
+     */
+    private int first = 0;
+    /**
+     * Number of elements.
+     */
+    private int size = 0;
+
+    /**
+     * Left bound of the elements.
+     */
+    private float minX;
+    /**
+     * Top bound of the elements.
+     */
+    private float minY;
+    /**
+     * Right bound of the elements.
+     */
+    private float maxX;
+    /**
+     * Bottom bound of the elements.
+     */
+    private float maxY;
+    /**
+     * The bounds may be bigger than needed (an element on the border was removed).
+     */
+    private boolean loose = false;
+
+    /**
+     * Constructor of an empty body.
+     */
+    Trail() {
+        this.x = new float[64];
+        this.y = new float[64];
+        this.diameter = new float[64];
+    }
+
+    /**
+     * Method to add a new head element.
+     *
+     * @param x        The left position of the element.
+     * @param y        The top position of the element.
+     * @param diameter The diameter of the element.
+     */
+    void addLast(float x, float y, float diameter) {
+        if(this.size == this.x.length)
+            this.grow();
+
+        int i = this.slot(this.size);
+        this.x[i] = x;
+        this.y[i] = y;
+        this.diameter[i] = diameter;
+
+        if(this.size == 0) {
+            this.minX = x;
+            this.minY = y;
+            this.maxX = x + diameter;
+            this.maxY = y + diameter;
+            this.loose = false;
+        } else {
+            this.extend(x, y, diameter);
+        }
+
+        this.size++;
+    }
+
+    /**
+     * Method to remove the queue element.
+     *
+     * @throws NoSuchElementException If the body is empty.
+     */
+    void removeFirst() {
+        if(this.size == 0)
+            throw new NoSuchElementException();
+
+        if(this.onBorder(this.first))
+            this.loose = true;
+
+        this.first = this.slot(1);
+        this.size--;
+    }
+
+    /**
+     * Method to remove all the elements except the head, in a constant time.
+     */
+    void keepLast() {
+        if(this.size <= 1)
+            return;
+
+        this.first = this.slot(this.size - 1);
+        this.size = 1;
+        this.loose = true;
+    }
+
+    /**
+     * Method to get the left position of an element.
+     *
+     * @param i The element index (<code>0</code> is the queue).
+     *
+     * @return The left position.
+     */
+    float getX(int i) {
+        return this.x[this.slot(i)];
+    }
+
+    /**
+     * Method to get the top position of an element.
+     *
+     * @param i The element index (<code>0</code> is the queue).
+     *
+     * @return The top position.
+     */
+    float getY(int i) {
+        return this.y[this.slot(i)];
+    }
+
+    /**
+     * Method to get the diameter of an element.
+     *
+     * @param i The element index (<code>0</code> is the queue).
+     *
+     * @return The diameter.
+     */
+    float getDiameter(int i) {
+        return this.diameter[this.slot(i)];
+    }
+
+    /**
+     * Method to get an element as a shape.
+     *
+     * @param i The element index (<code>0</code> is the queue).
+     *
+     * @return A new Ellipse2D.Float of the element.
+     */
+    RectangularShape get(int i) {
+        if(i < 0 || i >= this.size)
+            throw new IndexOutOfBoundsException();
+
+        int slot = this.slot(i);
+        return new Ellipse2D.Float(this.x[slot], this.y[slot], this.diameter[slot], this.diameter[slot]);
+    }
+
+    /**
+     * Method to check if a rectangle may intersect an element: it intersects the bounds of the elements. If the bounds
+     * are loose, they are fitted again before giving up.
+     * <p>
+     * <p>The tests can be done by several threads at the same time (as long as no element is added or removed):
+     * fitting the bounds only make them smaller, and every bound read is still big enough.</p>
+     *
+     * @param x      The left position of the rectangle.
+     * @param y      The top position of the rectangle.
+     * @param width  The width of the rectangle.
+     * @param height The height of the rectangle.
+     *
+     * @return False if the rectangle intersect no element, true if it may intersect one.
+     */
+    boolean mayIntersect(double x, double y, double width, double height) {
+        if(this.size == 0 || !this.inBounds(x, y, width, height))
+            return false;
+
+        if(this.loose) {
+            this.fit();
+            return this.inBounds(x, y, width, height);
+        }
+
+        return true;
+    }
+
+    /**
+     * Method to visit the elements which may cover a rectangle (their bounds intersect it), from the queue to the
+     * head. No element is read if the rectangle is outside the bounds of the body.
+     *
+     * @param x       The left position of the rectangle.
+     * @param y       The top position of the rectangle.
+     * @param width   The width of the rectangle.
+     * @param height  The height of the rectangle.
+     * @param visitor The action done on each element.
+     */
+    void forEach(double x, double y, double width, double height, ElementVisitor visitor) {
+        if(!this.mayIntersect(x, y, width, height))
+            return;
+
+        for(int i = 0 ; i < this.size ; i++) {
+            int slot = this.slot(i);
+            float nx = this.x[slot];
+            float ny = this.y[slot];
+            float size = this.diameter[slot];
+
+            if(nx <= x + width && ny <= y + height && nx + size >= x && ny + size >= y)
+                visitor.visit(nx, ny, size);
+        }
+    }
+
+    /**
+     * Method to check if a circle intersect one of the first elements (same result as <code>Movement.overlaps</code>
+     * for each element).
+     * <p>
+     * <p>The ring is read as two contiguous parts of the arrays. Most elements are far from the circle: they are
+     * rejected by comparing their bounds with the bounds of the circle, without any division. Only the elements close
+     * to the circle (one pixel of margin, much more than the rounding errors) are tested exactly.</p>
+     *
+     * @param x        The left position of the circle.
+     * @param y        The top position of the circle.
+     * @param diameter The diameter of the circle.
+     * @param end      The number of elements to test (from the queue).
+     *
+     * @return True if the circle intersect one of the elements, false else.
+     */
+    boolean overlaps(float x, float y, float diameter, int end) {
+        if(diameter <= 0 || end <= 0)
+            return false;
+
+        int split = Math.min(end, this.x.length - this.first);
+        return this.overlaps(x, y, diameter, this.first, this.first + split) ||
+                       this.overlaps(x, y, diameter, 0, end - split);
+    }
+
+    /**
+     * Method to check if a circle intersect an element of a contiguous part of the arrays.
+     *
+     * @param x        The left position of the circle.
+     * @param y        The top position of the circle.
+     * @param diameter The diameter of the circle.
+     * @param from     The first position in the arrays (included).
+     * @param to       The last position in the arrays (excluded).
+     *
+     * @return True if the circle intersect one of the elements, false else.
+     */
+    private boolean overlaps(float x, float y, float diameter, int from, int to) {
+        float[] xs = this.x;
+        float[] ys = this.y;
+        float[] sizes = this.diameter;
+        float far = diameter + 1;
+
+        for(int i = from ; i < to ; i++) {
+            float dx = xs[i] - x;
+            float dy = ys[i] - y;
+            float size = sizes[i];
+
+            if(dx > far | dy > far | dx + size < -1 | dy + size < -1)
+                continue;
+
+            if(Movement.overlaps(x, y, diameter, xs[i], ys[i], size, size))
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Method to get the number of elements.
+     *
+     * @return The number of elements.
+     */
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Method to get the number of elements stored before the arrays are increased.
+     *
+     * @return The length of the arrays.
+     */
+    int capacity() {
+        return this.x.length;
+    }
+
+    /**
+     * Method to iterate on the elements, from the queue to the head.
+     *
+     * @return An iterator creating a new Ellipse2D.Float for each element.
+     */
+    @Override
+    public Iterator<RectangularShape> iterator() {
+        return new Iterator<RectangularShape>() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return this.i < Trail.this.size;
+            }
+
+            @Override
+            public RectangularShape next() {
+                if(!this.hasNext())
+                    throw new NoSuchElementException();
+
+                return Trail.this.get(this.i++);
+            }
+        };
+    }
+
+    /**
+     * Method to extend the bounds to an element.
+     *
+     * @param x        The left position of the element.
+     * @param y        The top position of the element.
+     * @param diameter The diameter of the element.
+     */
+    private void extend(float x, float y, float diameter) {
+        if(x < this.minX) this.minX = x;
+        if(y < this.minY) this.minY = y;
+        if(x + diameter > this.maxX) this.maxX = x + diameter;
+        if(y + diameter > this.maxY) this.maxY = y + diameter;
+    }
+
+    /**
+     * Method to check if an element touch the bounds.
+     *
+     * @param slot The position of the element in the arrays.
+     *
+     * @return True if the element is on a border of the bounds, false else.
+     */
+    private boolean onBorder(int slot) {
+        return this.x[slot] <= this.minX || this.y[slot] <= this.minY ||
+                       this.x[slot] + this.diameter[slot] >= this.maxX || this.y[slot] + this.diameter[slot] >= this.maxY;
+    }
+
+    /**
+     * Method to check if a rectangle intersect the bounds (the borders included).
+     *
+     * @param x      The left position of the rectangle.
+     * @param y      The top position of the rectangle.
+     * @param width  The width of the rectangle.
+     * @param height The height of the rectangle.
+     *
+     * @return True if the rectangle intersect the bounds, false else.
+     */
+    private boolean inBounds(double x, double y, double width, double height) {
+        return x <= this.maxX && y <= this.maxY && x + width >= this.minX && y + height >= this.minY;
+    }
+
+    /**
+     * Method to compute again the exact bounds of the elements.
+     */
+    private void fit() {
+        int first = this.slot(0);
+        float minX = this.x[first];
+        float minY = this.y[first];
+        float maxX = minX + this.diameter[first];
+        float maxY = minY + this.diameter[first];
+
+        for(int i = 1 ; i < this.size ; i++) {
+            int slot = this.slot(i);
+            minX = Math.min(minX, this.x[slot]);
+            minY = Math.min(minY, this.y[slot]);
+            maxX = Math.max(maxX, this.x[slot] + this.diameter[slot]);
+            maxY = Math.max(maxY, this.y[slot] + this.diameter[slot]);
+        }
+
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.loose = false;
+    }
+
+    /**
+     * Method to get the position of an element in the arrays.
+     *
+     * @param i The element index.
+     *
+     * @return The position in the arrays.
+     */
+    private int slot(int i) {
+        return (this.first + i) & (this.x.length - 1);
+    }
+
+    /**
+     * Method to double the size of the arrays. The queue is moved to the beginning of the arrays.
+     */
+    private void grow() {
+        int capacity = this.x.length * 2;
+
+        this.x = this.unroll(this.x, capacity);
+        this.y = this.unroll(this.y, capacity);
+        this.diameter = this.unroll(this.diameter, capacity);
+
+        this.first = 0;
+    }
+
+    /**
+     * Method to copy an array of the ring in a bigger array, starting by the queue.
+     *
+     * @param array    The array to copy.
+     * @param capacity The size of the new array.
+     *
+     * @return The new array.
+     */
+    private float[] unroll(float[] array, int capacity) {
+        float[] copy = Arrays.copyOfRange(array, this.first, this.first + capacity);
+        System.arraycopy(array, 0, copy, array.length - this.first, this.first);
+
+        return copy;
+    }
+}
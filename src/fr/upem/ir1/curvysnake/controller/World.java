@@ -0,0 +1,500 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.controller;
+
+import fr.upem.ir1.curvysnake.controller.exception.GameSizeException;
+
+import java.awt.geom.RectangularShape;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * This class represent a game (a match): the game board, the Snake in game, the Bonus in game and the collision
+ * detection.
+ * <p>
+ * <p>Each Snake is bound to one world, given at its creation. Several worlds can be used at the same time (in the
+ * same JVM), they do not share anything. A Snake is only visible from its own world: once the world is not used
+ * anymore, its Snake do not need to be destroyed.</p>
+ * <p>
+ * <p>The random choices of a world (the appearance of the Bonus, their type, and the holes in the body of each Snake)
+ * use separated generators, all split from the seed of the world: a game is reproducible from its seed, and the
+ * worlds used at the same time do not share any generator.</p>
+ * <p>
+ * <p>The game board may contain static obstacles (an <code>ObstacleMap</code>, placed at the top left corner of the
+ * board). The map is only read: the same map is shared by all the worlds using it.</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see Snake
+ * @see BonusListInGame
+ */
+public class World {
+
+    /**
+     * List of Snake actually in the race.
+     */
+    private final List<Snake> snakeList = new ArrayList<>();
+    /**
+     * Unmodifiable view of the list of Snake actually in the race.
+     */
+    private final List<Snake> snakeView = Collections.unmodifiableList(this.snakeList);
+    /**
+     * List of Bonus actually in game.
+     */
+    private final BonusListInGame bonusListInGame = new BonusListInGame(this);
+    /**
+     * The border limit of the movements (allowed - include).
+     */
+    private RectangularShape gameSize = null;
+    /**
+     * Type of collision detection used in game.
+     */
+    private CollisionMode collisionMode = CollisionMode.SPATIAL_HASH;
+    /**
+     * Structure storing all the body elements in game, used to detect the collisions.
+     */
+    private CollisionIndex index = new SpatialHash(Movement.defaultDiameter);
+    /**
+     * Free places of the game board for a new Bonus (null if the game size is not set).
+     */
+    private FreeCells freeCells = null;
+    /**
+     * Static obstacles of the game board (null if none).
+     */
+    private ObstacleMap obstacles = null;
+    /**
+     * End of the Bonus active on the Snake, and number of ticks done.
+     */
+    private final BonusTimer timer = new BonusTimer();
+    /**
+     * Random generator of the appearance and of the position of the Bonus.
+     */
+    private SplittableRandom spawnRandom;
+    /**
+     * Random generator of the type of the Bonus.
+     */
+    private SplittableRandom bonusRandom;
+    /**
+     * Random generator from which each Snake get its own generator (for the holes in its body).
+     */
+    private SplittableRandom snakeRandom;
+    /**
+     * Random generator of the players without user (start positions and choices of the bots, see
+     * <code>BatchRunner</code>).
+     */
+    private SplittableRandom playerRandom;
+    /**
+     * Number of erase all done in game.
+     */
+    private long generation = 0;
+
+    /**
+     * Constructor of a world without game size. It must be set before moving a Snake. The seed is chosen at random.
+     */
+    public World() {
+        this.setSeed(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Constructor of a world. The seed is chosen at random.
+     *
+     * @param gameSize The information about the game size.
+     */
+    public World(RectangularShape gameSize) {
+        this(gameSize, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Constructor of a world, reproducible from its seed.
+     *
+     * @param gameSize The information about the game size.
+     * @param seed     The seed of the random generators of the world.
+     */
+    public World(RectangularShape gameSize, long seed) {
+        this.setSeed(seed);
+        this.setGameSize(gameSize);
+    }
+
+    /**
+     * Method to reset the random generators of the world (and of its Snake) from a seed.
+     *
+     * @param seed The seed of the random generators.
+     */
+    public void setSeed(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+
+        this.spawnRandom = random.split();
+        this.bonusRandom = random.split();
+        this.snakeRandom = random.split();
+        this.playerRandom = random.split();
+
+        this.snakeList.forEach(snake -> snake.setRandom(this.snakeRandom.split()));
+        this.bonusListInGame.reschedule();
+    }
+
+    /**
+     * Method to get the random generator of the appearance and of the position of the Bonus.
+     *
+     * @return The random generator.
+     */
+    SplittableRandom getSpawnRandom() {
+        return this.spawnRandom;
+    }
+
+    /**
+     * Method to get the random generator of the type of the Bonus.
+     *
+     * @return The random generator.
+     */
+    SplittableRandom getBonusRandom() {
+        return this.bonusRandom;
+    }
+
+    /**
+     * Method to get the random generator of the players without user (start positions and choices of the bots).
+     *
+     * @return The random generator.
+     */
+    SplittableRandom getPlayerRandom() {
+        return this.playerRandom;
+    }
+
+    /**
+     * Method to get the information about the game size
+     *
+     * @return The information about the game size
+     */
+    public RectangularShape getGameSize() {
+        return this.gameSize;
+    }
+
+    /**
+     * Method to specify the information about the game size
+     *
+     * @param rectangle New game size information
+     */
+    public void setGameSize(RectangularShape rectangle) {
+        this.gameSize = rectangle;
+
+        // The structure may depend on the game size
+        if(rectangle != null) {
+            try {
+                this.rebuild(this.collisionMode.create(this));
+            } catch(GameSizeException e) {
+                throw new AssertionError(e);
+            }
+        } else {
+            this.freeCells = null;
+        }
+    }
+
+    /**
+     * Method to get the static obstacles of the game board.
+     *
+     * @return The obstacles, or null if none.
+     */
+    public ObstacleMap getObstacles() {
+        return this.obstacles;
+    }
+
+    /**
+     * Method to specify the static obstacles of the game board. The map is placed at the top left corner of the board,
+     * and is not copied (it can be shared by several worlds).
+     *
+     * @param obstacles The obstacles (null if none).
+     */
+    public void setObstacles(ObstacleMap obstacles) {
+        this.obstacles = obstacles;
+
+        // The free places depend on the obstacles
+        this.index.clear();
+        this.rebuild(this.index);
+    }
+
+    /**
+     * Method to check if a head hit a static obstacle.
+     *
+     * @param x        The left position of the head.
+     * @param y        The top position of the head.
+     * @param diameter The diameter of the head.
+     *
+     * @return True if the head hit an obstacle, false else (or if there is no obstacle).
+     */
+    boolean hitObstacle(float x, float y, float diameter) {
+        if(this.obstacles == null || this.gameSize == null)
+            return false;
+
+        return this.obstacles.intersects(x - (float) this.gameSize.getX(), y - (float) this.gameSize.getY(), diameter);
+    }
+
+    /**
+     * Method to get the type of collision detection used in game.
+     *
+     * @return The type of collision detection.
+     */
+    public CollisionMode getCollisionMode() {
+        return this.collisionMode;
+    }
+
+    /**
+     * Method to specify the type of collision detection used in game. It can be changed during a game.
+     *
+     * @param mode The new type of collision detection.
+     *
+     * @throws GameSizeException If the type of collision detection need the GameSize and it is not set.
+     */
+    public void setCollisionMode(CollisionMode mode) throws GameSizeException {
+        if(mode == null)
+            throw new NullPointerException();
+
+        this.rebuild(mode.create(this));
+        this.collisionMode = mode;
+    }
+
+    /**
+     * Method to replace the collision structure and the free places, and to add again every element in game.
+     *
+     * @param index The new (empty) collision structure.
+     */
+    private void rebuild(CollisionIndex index) {
+        this.index = index;
+        this.freeCells = this.gameSize == null ? null :
+                                 new FreeCells(this.gameSize, BonusListInGame.DEFAULT_DIAMETER, this.obstacles);
+
+        this.refill();
+    }
+
+    /**
+     * Method to add again the Bonus and the body elements in game to the collision structure and the free places.
+     */
+    private void refill() {
+        for(int i = 0 ; i < this.bonusListInGame.size() ; i++)
+            this.occupy(this.bonusListInGame.get(i).getKey(), 1);
+
+        for(int i = 0 ; i < this.snakeList.size() ; i++)
+            this.snakeList.get(i).getMovement().register();
+    }
+
+    /**
+     * Method to get the structure storing all the body elements in game.
+     *
+     * @return The collision structure.
+     */
+    CollisionIndex getIndex() {
+        return this.index;
+    }
+
+    /**
+     * Method to add a body element to the collision structure and to the free places.
+     *
+     * @param body     The body owning the element.
+     * @param i        The index of the element in the body.
+     * @param x        The left position of the element.
+     * @param y        The top position of the element.
+     * @param diameter The diameter of the element.
+     */
+    void insert(Movement body, long i, float x, float y, float diameter) {
+        this.index.insert(body, i, x, y, diameter);
+
+        if(this.freeCells != null)
+            this.freeCells.add(x, y, diameter, diameter, 1);
+    }
+
+    /**
+     * Method to remove a body element from the collision structure and from the free places.
+     *
+     * @param body     The body owning the element.
+     * @param i        The index of the element in the body.
+     * @param x        The left position of the element (as when inserted).
+     * @param y        The top position of the element (as when inserted).
+     * @param diameter The diameter of the element (as when inserted).
+     */
+    void remove(Movement body, long i, float x, float y, float diameter) {
+        this.index.remove(body, i, x, y, diameter);
+
+        if(this.freeCells != null)
+            this.freeCells.add(x, y, diameter, diameter, -1);
+    }
+
+    /**
+     * Method to add (or remove) a Bonus to the free places.
+     *
+     * @param position The position of the Bonus.
+     * @param value    1 to add the Bonus, -1 to remove it.
+     */
+    void occupy(RectangularShape position, int value) {
+        if(this.freeCells != null)
+            this.freeCells.add(position.getX(), position.getY(), position.getWidth(), position.getHeight(), value);
+    }
+
+    /**
+     * Method to get the free places of the game board for a new Bonus.
+     *
+     * @return The free places, or null if the game size is not set.
+     */
+    FreeCells getFreeCells() {
+        return this.freeCells;
+    }
+
+    /**
+     * Method to get the Snake owning a body.
+     *
+     * @param body The body.
+     *
+     * @return The Snake of the body, or null if it is not in game.
+     */
+    Snake getSnake(Movement body) {
+        for(int i = 0 ; i < this.snakeList.size() ; i++) {
+            if(this.snakeList.get(i).getMovement() == body)
+                return this.snakeList.get(i);
+        }
+
+        return null;
+    }
+
+    /**
+     * Method to get the end of the Bonus active on the Snake.
+     *
+     * @return The Bonus timer.
+     */
+    BonusTimer getTimer() {
+        return this.timer;
+    }
+
+    /**
+     * Method to get the number of ticks done (see <code>decrementAll()</code>).
+     *
+     * @return The actual tick.
+     */
+    public long getTick() {
+        return this.timer.getTick();
+    }
+
+    /**
+     * Method to get the Bonus List actually in Game.
+     *
+     * @return The BonusListInGame with all Bonus associated to a position.
+     */
+    public BonusListInGame getBonusListInGame() {
+        return this.bonusListInGame;
+    }
+
+    /**
+     * Method to get the Snake list actually in game.
+     *
+     * @return An unmodifiable view of the snake list.
+     */
+    public List<Snake> getSnakeList() {
+        return this.snakeView;
+    }
+
+    /**
+     * Method to add a new Snake in the race (called by the Snake constructor).
+     *
+     * @param snake The new Snake.
+     */
+    void add(Snake snake) {
+        this.snakeList.add(snake);
+        snake.setRandom(this.snakeRandom.split());
+    }
+
+    /**
+     * Method to remove a Snake from the race. Its body can not hit (or be hit) anymore.
+     *
+     * @param snake The Snake to remove.
+     *
+     * @return True if the remove action is successful, false else.
+     */
+    public boolean destroy(Snake snake) {
+        if(!this.snakeList.remove(snake))
+            return false;
+
+        snake.getMovement().release();
+        return true;
+    }
+
+    /**
+     * Method to clean all Snake trace. This action keep only the head of the Snakes.
+     * <p>
+     * <p>The bodies are not removed one by one: the collision structure and the free places are cleared at once (a new
+     * generation for both, the obstacles being kept in the baseline of the free places), and only the heads and the
+     * Bonus are added again. Nothing is created. The generation of the world is increased, so a display can draw the
+     * whole board again instead of erasing each element.</p>
+     *
+     * @param erase The list of element erase by the clean action (null if not needed).
+     */
+    public void cleanAll(List<RectangularShape> erase) {
+        for(int i = 0 ; i < this.snakeList.size() ; i++)
+            this.snakeList.get(i).getMovement().cut(erase);
+
+        this.generation++;
+        this.index.clear();
+        if(this.freeCells != null)
+            this.freeCells.clear();
+
+        this.refill();
+    }
+
+    /**
+     * Method to get the generation of the world: the number of erase all done in game. When it changes, every body
+     * element (except the heads) has been removed.
+     *
+     * @return The generation of the world.
+     */
+    public long getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * Method to decrement all Snake bonus time: a tick is done, and the bonus ending at this tick are removed. A tick
+     * where no bonus end does not read the bonus.
+     */
+    public void decrementAll() {
+        this.timer.advance();
+    }
+
+    /**
+     * Method to detect if a position is not used by a Snake body element, nor by an obstacle.
+     *
+     * @param position The position to test with all Snake (and with the obstacles, as a circle of its width).
+     *
+     * @return True if the position is free, false else.
+     */
+    public boolean positionIsFree(RectangularShape position) {
+        if(this.hitObstacle((float) position.getX(), (float) position.getY(), (float) position.getWidth()))
+            return false;
+
+        for(int i = 0 ; i < this.snakeList.size() ; i++) {
+            if(this.snakeList.get(i).getMovement().intersects(position))
+                return false;
+        }
+
+        return true;
+    }
+}
@@ -69,53 +69,38 @@ public final class Draw {
 		if(bonus==null){
 			return;
 		}
-		if(bonus.getValue().isA(BonusAvailable.NEXT_HOPE))
+		Color c = bonusColor(bonus.getValue());
 		context.renderFrame(graphics -> {
-			
-			graphics.setColor(Color.BLUE);
-			graphics.fill(bonus.getKey());
-		});
-		else if(bonus.getValue().isA(BonusAvailable.SPEED_INCREASE))
-			context.renderFrame(graphics -> {
-			graphics.setColor(Color.YELLOW);
-			graphics.fill(bonus.getKey());
-		});
-		else if(bonus.getValue().isA(BonusAvailable.SPEED_DECREASE))
-			context.renderFrame(graphics -> {
-			graphics.setColor(Color.ORANGE);
-			graphics.fill(bonus.getKey());
-		});
-		else if(bonus.getValue().isA(BonusAvailable.INVERSE_DIRECTION))
-			context.renderFrame(graphics -> {
-			graphics.setColor(Color.BLACK);
-			graphics.fill(bonus.getKey());
-		});
-		else if(bonus.getValue().isA(BonusAvailable.SIZE_DECREASE))
-			context.renderFrame(graphics -> {
-			graphics.setColor(Color.PINK);
-			graphics.fill(bonus.getKey());
-		});
-		else if(bonus.getValue().isA(BonusAvailable.SIZE_INCREASE))
-			context.renderFrame(graphics -> {
-			graphics.setColor(Color.CYAN);
-			graphics.fill(bonus.getKey());
-		});
-		else if(bonus.getValue().isA(BonusAvailable.ERASE_ALL))
-			context.renderFrame(graphics -> {
-			graphics.setColor(Color.GRAY);
+			graphics.setColor(c);
 			graphics.fill(bonus.getKey());
 		});
-		else if(bonus.getValue().isA(BonusAvailable.WALL_THROUGH))
-			context.renderFrame(graphics -> {
-				graphics.setColor(Color.MAGENTA);
-				graphics.fill(bonus.getKey());
-			});
-		else{
-			context.renderFrame(graphics -> {
-				graphics.setColor(Color.RED);
-				graphics.fill(bonus.getKey());
-			});	
-		}
+	}
+
+	/**
+	 * Color of each type of bonus, indexed by the ordinal of the type
+	 */
+	private static final Color[] BONUS_COLORS = new Color[BonusAvailable.values().length];
+	static {
+		BONUS_COLORS[BonusAvailable.NEXT_HOPE.ordinal()] = Color.BLUE;
+		BONUS_COLORS[BonusAvailable.SPEED_INCREASE.ordinal()] = Color.YELLOW;
+		BONUS_COLORS[BonusAvailable.SPEED_DECREASE.ordinal()] = Color.ORANGE;
+		BONUS_COLORS[BonusAvailable.INVERSE_DIRECTION.ordinal()] = Color.BLACK;
+		BONUS_COLORS[BonusAvailable.SIZE_DECREASE.ordinal()] = Color.PINK;
+		BONUS_COLORS[BonusAvailable.SIZE_INCREASE.ordinal()] = Color.CYAN;
+		BONUS_COLORS[BonusAvailable.ERASE_ALL.ordinal()] = Color.GRAY;
+		BONUS_COLORS[BonusAvailable.WALL_THROUGH.ordinal()] = Color.MAGENTA;
+	}
+
+	/**
+	 * it's to get the color of a bonus
+	 * @param bonus the bonus to draw
+	 * @return the color of the bonus type (red if the bonus has no type)
+	 */
+	static Color bonusColor(Bonus bonus){
+		BonusAvailable type = bonus.getType();
+		if(type==null)
+			return Color.RED;
+		return BONUS_COLORS[type.ordinal()];
 	}
 
 }
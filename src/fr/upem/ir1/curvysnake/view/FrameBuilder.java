@@ -0,0 +1,294 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 COLLOMB-GRISET
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ *
+ */
+
+package fr.upem.ir1.curvysnake.view;
+
+import fr.umlv.zen5.ApplicationContext;
+import fr.upem.ir1.curvysnake.controller.Bonus;
+import fr.upem.ir1.curvysnake.controller.BonusListInGame;
+import fr.upem.ir1.curvysnake.controller.ElementVisitor;
+import fr.upem.ir1.curvysnake.controller.Entry;
+
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.RectangularShape;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class to gather all the drawing of one or more ticks (erased elements, added elements, bonus) and display them in
+ * one frame.
+ * <p>
+ * <p>The drawings are done in an offscreen image which keeps the whole game board. An erased element is not painted
+ * in white: its area is cleared and every body element and bonus still in game which cover it is painted again, so an
+ * overlapping body is never damaged. The body elements are found by the collision detection of the game and painted
+ * through one reused shape, so the cost depends on the erased areas and nothing is created by element.</p>
+ * <p>
+ * <p>Only the parts of the image changed since the last frame are displayed: the changed areas are kept in a list,
+ * merged only when they overlap, and each one is copied to the screen in the same frame. Two changes far from each
+ * other do not display the whole board between them.</p>
+ * <p>
+ * <p>After an erase all, the erased bodies are not given one by one: the whole board is cleared and painted again from
+ * the elements still in game, in one pass.</p>
+ *
+ * @author COLLOMB Jérémie
+ * @author GRISET  Valentin
+ * @see Draw
+ */
+public final class FrameBuilder {
+
+    /**
+     * Image of the whole game board.
+     */
+    private final BufferedImage buffer;
+    /**
+     * Graphics drawing in the image.
+     */
+    private final Graphics2D graphics;
+    /**
+     * Bonus in game (painted again in the erased areas).
+     */
+    private final BonusListInGame bonusListInGame;
+    /**
+     * Players in game (painted again in the erased areas).
+     */
+    private final Player[] players;
+
+    /**
+     * Shape of the body element being painted again (reused).
+     */
+    private final Ellipse2D.Float element = new Ellipse2D.Float();
+    /**
+     * Action painting a body element again with the current color.
+     */
+    private final ElementVisitor fill = this::fill;
+
+    /**
+     * Areas to clear before the next frame (merged when they overlap).
+     */
+    private final List<Rectangle> erased = new ArrayList<>();
+    /**
+     * Areas changed since the last frame (merged when they overlap).
+     */
+    private final List<Rectangle> dirty = new ArrayList<>();
+    /**
+     * The whole board must be painted again before the next frame (after an erase all).
+     */
+    private boolean cleared = false;
+
+    /**
+     * Constructor of the frame builder. The whole board is displayed at the next frame.
+     *
+     * @param width           The width of the game board.
+     * @param height          The height of the game board.
+     * @param bonusListInGame The bonus in game.
+     * @param players         The players in game.
+     */
+    public FrameBuilder(int width, int height, BonusListInGame bonusListInGame, Player... players) {
+        this.buffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        this.graphics = this.buffer.createGraphics();
+        this.bonusListInGame = bonusListInGame;
+        this.players = players;
+
+        this.graphics.setColor(Color.WHITE);
+        this.graphics.fillRect(0, 0, width, height);
+        this.dirty.add(new Rectangle(0, 0, width, height));
+    }
+
+    /**
+     * Add a shape to draw.
+     *
+     * @param body the position and the size of the shape
+     * @param c    the color of the shape
+     */
+    public void draw(RectangularShape body, Color c) {
+        this.graphics.setColor(c);
+        this.graphics.fill(body);
+        this.damage(body.getBounds());
+    }
+
+    /**
+     * Add a shape to erase.
+     *
+     * @param queu the position and the size of the shape (ignored if null)
+     */
+    public void undraw(RectangularShape queu) {
+        if(queu == null)
+            return;
+
+        Rectangle area = queu.getBounds();
+        this.damage(new Rectangle(area));
+        merge(this.erased, area);
+    }
+
+    /**
+     * Add a clear of the whole board (after an erase all): it is painted again from the elements still in game. The
+     * areas to erase are not needed anymore.
+     */
+    public void clear() {
+        this.cleared = true;
+        this.erased.clear();
+    }
+
+    /**
+     * Add a bonus to draw, with the color of its type.
+     *
+     * @param bonus the bonus to draw (ignored if null)
+     */
+    public void drawBonus(Entry<RectangularShape, Bonus> bonus) {
+        if(bonus == null)
+            return;
+
+        this.draw(bonus.getKey(), Draw.bonusColor(bonus.getValue()));
+    }
+
+    /**
+     * Display the changed part of the game board in one frame, and clear the builder.
+     *
+     * @param context the display windows
+     */
+    public void render(ApplicationContext context) {
+        if(this.cleared)
+            this.repaintAll();
+        else if(!this.erased.isEmpty())
+            this.repaint();
+
+        // Only the parts inside the board are displayed
+        Rectangle board = new Rectangle(this.buffer.getWidth(), this.buffer.getHeight());
+        for(int i = this.dirty.size() - 1 ; i >= 0 ; i--) {
+            Rectangle area = this.dirty.get(i);
+            Rectangle.intersect(area, board, area);
+            if(area.isEmpty())
+                this.dirty.remove(i);
+        }
+
+        if(this.dirty.isEmpty())
+            return;
+
+        context.renderFrame(graphics -> {
+            for(Rectangle area : this.dirty) {
+                int x1 = area.x;
+                int y1 = area.y;
+                int x2 = area.x + area.width;
+                int y2 = area.y + area.height;
+                graphics.drawImage(this.buffer, x1, y1, x2, y2, x1, y1, x2, y2, null);
+            }
+        });
+        this.dirty.clear();
+    }
+
+    /**
+     * Method to clear the erased areas, and paint again the elements still in game which cover them.
+     */
+    private void repaint() {
+        for(Rectangle area : this.erased) {
+            this.graphics.setClip(area);
+            this.graphics.setColor(Color.WHITE);
+            this.graphics.fill(area);
+
+            for(Player player : this.players) {
+                this.graphics.setColor(player.getColor());
+                player.getPlayer().forEachElement(area, this.fill);
+            }
+
+            for(int i = 0 ; i < this.bonusListInGame.size() ; i++) {
+                Entry<RectangularShape, Bonus> bonus = this.bonusListInGame.get(i);
+                if(bonus.getKey().intersects(area)) {
+                    this.graphics.setColor(Draw.bonusColor(bonus.getValue()));
+                    this.graphics.fill(bonus.getKey());
+                }
+            }
+        }
+
+        this.graphics.setClip(null);
+        this.erased.clear();
+    }
+
+    /**
+     * Method to clear the whole board, and paint again every element still in game.
+     */
+    private void repaintAll() {
+        this.graphics.setColor(Color.WHITE);
+        this.graphics.fillRect(0, 0, this.buffer.getWidth(), this.buffer.getHeight());
+
+        Rectangle board = new Rectangle(0, 0, this.buffer.getWidth(), this.buffer.getHeight());
+        for(Player player : this.players) {
+            this.graphics.setColor(player.getColor());
+            player.getPlayer().forEachElement(board, this.fill);
+        }
+
+        for(int i = 0 ; i < this.bonusListInGame.size() ; i++) {
+            Entry<RectangularShape, Bonus> bonus = this.bonusListInGame.get(i);
+            this.graphics.setColor(Draw.bonusColor(bonus.getValue()));
+            this.graphics.fill(bonus.getKey());
+        }
+
+        this.erased.clear();
+        this.cleared = false;
+        this.damage(new Rectangle(0, 0, this.buffer.getWidth(), this.buffer.getHeight()));
+    }
+
+    /**
+     * Method to paint a body element again, with the current color.
+     *
+     * @param x        the left position of the element
+     * @param y        the top position of the element
+     * @param diameter the diameter of the element
+     */
+    private void fill(float x, float y, float diameter) {
+        this.element.setFrame(x, y, diameter, diameter);
+        this.graphics.fill(this.element);
+    }
+
+    /**
+     * Method to add an area to the parts of the board to display at the next frame.
+     *
+     * @param area the changed area (changed by the merge)
+     */
+    private void damage(Rectangle area) {
+        merge(this.dirty, area);
+    }
+
+    /**
+     * Method to add an area to a list of areas, merged with all the areas it overlaps (directly or through another
+     * merged area).
+     *
+     * @param areas the list of areas, which never overlap
+     * @param area  the new area (changed by the merge)
+     */
+    private static void merge(List<Rectangle> areas, Rectangle area) {
+        for(int i = areas.size() - 1 ; i >= 0 ; i--) {
+            Rectangle other = areas.get(i);
+            if(other.intersects(area)) {
+                area.add(other);
+                areas.remove(i);
+                i = areas.size();
+            }
+        }
+        areas.add(area);
+    }
+}
@@ -31,16 +31,13 @@ import fr.umlv.zen5.Event;
 import fr.umlv.zen5.Event.Action;
 import fr.umlv.zen5.KeyboardKey;
 import fr.umlv.zen5.ScreenInfo;
-import fr.upem.ir1.curvysnake.controller.BonusListInGame;
+import fr.upem.ir1.curvysnake.controller.Delta;
+import fr.upem.ir1.curvysnake.controller.GameEngine;
 import fr.upem.ir1.curvysnake.controller.MoveTo;
-import fr.upem.ir1.curvysnake.controller.Snake;
-import fr.upem.ir1.curvysnake.controller.exception.CollisionException;
+import fr.upem.ir1.curvysnake.controller.TickScheduler;
 
 import java.awt.*;
-import java.awt.geom.Rectangle2D;
-import java.awt.geom.RectangularShape;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author collombj
@@ -49,36 +46,21 @@ import java.util.List;
  * @date 05/06/2015
  */
 public class MultiPlayer {
-	
-	/**
-	 * Create a gameSize
-	 */
-    private static Rectangle gameSize = new Rectangle(0, 0, 500, 500);
-    /**
-     * Create a bonus list fo the game
-     */
-    private static BonusListInGame bonusListInGame = new BonusListInGame();
-
     /**
      * 
      */
     public static void run() {
-        // Set environnement
-        Snake.setGameSize(gameSize);
-        // Set Bonus List
-        Snake.setBonusListInGame(bonusListInGame);
+        // Size of the game, until the screen size is known
+        Rectangle gameSize = new Rectangle(0, 0, 500, 500);
+        GameEngine engine = new GameEngine(gameSize);
 
-        Player player1 = new Player(new Snake(new Point(
-                                                               (int) gameSize.getCenterX(), (int) gameSize.getCenterY()), 0),
-                                    Color.GREEN);
-        List<RectangularShape> add1 = new ArrayList<>();
+        Player player1 = new Player(engine.getSnake(engine.addSnake(new Point(
+                (int) gameSize.getCenterX(), (int) gameSize.getCenterY()), 0)), Color.GREEN);
 
-        Player player2 = new Player(new Snake(new Point(
-                                                               (int) gameSize.getCenterX(), (int) gameSize.getCenterY() + 50),
-                                              0), Color.RED);
-        List<RectangularShape> add2 = new ArrayList<>();
+        Player player2 = new Player(engine.getSnake(engine.addSnake(new Point(
+                (int) gameSize.getCenterX(), (int) gameSize.getCenterY() + 50), 0)), Color.RED);
 
-        List<RectangularShape> erase = new ArrayList<>();
+        Player[] players = {player1, player2};
 
 		/*
          * Interface Graphique initialisation
@@ -95,16 +77,18 @@ public class MultiPlayer {
 
             gameSize.height = (int) height;
             gameSize.width = (int) width;
-            context.renderFrame(graphics -> {
-                graphics.setColor(Color.WHITE);
-                graphics.fill(new Rectangle2D.Float(0, 0, width, height));
+            // The collision structure may depend on the game size
+            engine.getWorld().setGameSize(gameSize);
+            // Drawings of the ticks, displayed in one frame
+            FrameBuilder frame = new FrameBuilder((int) width, (int) height, engine.getBonusListInGame(), players);
+            frame.render(context);
 
-            });
+            TickScheduler scheduler = new TickScheduler(GameEngine.TICK_PERIOD, TimeUnit.MILLISECONDS,
+                                                        GameEngine.MAX_CATCH_UP);
 
-            int time = 0;
             while(true) {
-                Event event = context.pollOrWaitEvent(1);
-                time++;
+                // Wait for an event until the next tick
+                Event event = context.pollOrWaitEvent(scheduler.remaining(TimeUnit.MILLISECONDS));
                 if(event != null) { // no event
                     Action action = event.getAction();
                     if(action == Action.KEY_PRESSED) {
@@ -140,56 +124,39 @@ public class MultiPlayer {
                     }
                 }
 
-                if(time >= 25) {
+                for(int due = scheduler.due() ; due > 0 ; due--) {
+                    Delta delta;
                     try {
-                        if(player1.isAlive())
-                            player1.getPlayer().move(add1, erase);
-                    } catch(CollisionException e) {
-                        player1.kill();
+                        delta = engine.tick();
                     } catch(Exception e) {
                         e.printStackTrace();
                         context.exit(-1);
                         return;
                     }
 
-                    try {
-                        if(player2.isAlive())
-                            player2.getPlayer().move(add2, erase);
-                    } catch(CollisionException e) {
-                        player2.kill();
-                    } catch(Exception e) {
-                        e.printStackTrace();
-                        context.exit(-1);
-                        return;
-                    }
+                    if(delta.isCleared())
+                        frame.clear();
+                    delta.getErased().forEach(frame::undraw);
 
-                    time = 0;
-                }
+                    for(int i = 0 ; i < players.length ; i++) {
+                        Player player = players[i];
 
-                erase.forEach(Draw::undraw);
-                erase.clear();
+                        delta.getAdded(i).forEach(rectangularShape -> frame.draw(rectangularShape, player.getColor()));
 
-                add1.forEach(rectangularShape -> Draw.draw(rectangularShape, player1.getColor()));
-                add1.clear();
-
-                add2.forEach(rectangularShape -> Draw.draw(rectangularShape, player2.getColor()));
-                add2.clear();
-
-                if(player1.isAlive())
-                    Draw.draw(player1.getPlayer().getQueue(), player1.getColor());
-
-                if(player2.isAlive())
-                 Draw.draw(player2.getPlayer().getQueue(), player2.getColor());
-
-
-                Draw.drawBonus(bonusListInGame.random());
+                        if(!engine.isAlive(i))
+                            player.kill();
+                    }
 
-                Snake.decrementAll();
+                    frame.drawBonus(delta.getBonus());
 
-                if(!player1.isAlive() && !player2.isAlive()) {
-                    context.exit(0);
-                    return;
+                    if(engine.isOver()) {
+                        frame.render(context);
+                        context.exit(0);
+                        return;
+                    }
                 }
+
+                frame.render(context);
             }
         });
 
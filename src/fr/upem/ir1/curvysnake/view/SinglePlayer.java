@@ -31,17 +31,13 @@ import fr.umlv.zen5.Event;
 import fr.umlv.zen5.Event.Action;
 import fr.umlv.zen5.KeyboardKey;
 import fr.umlv.zen5.ScreenInfo;
-import fr.upem.ir1.curvysnake.controller.BonusListInGame;
+import fr.upem.ir1.curvysnake.controller.Delta;
+import fr.upem.ir1.curvysnake.controller.GameEngine;
 import fr.upem.ir1.curvysnake.controller.MoveTo;
-import fr.upem.ir1.curvysnake.controller.Snake;
-import fr.upem.ir1.curvysnake.controller.exception.CollisionException;
+import fr.upem.ir1.curvysnake.controller.TickScheduler;
 
 import java.awt.*;
-import java.awt.geom.Rectangle2D;
-import java.awt.geom.RectangularShape;
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author collombj
@@ -50,27 +46,16 @@ import java.util.List;
  * @date 05/06/2015
  */
 public class SinglePlayer {
-	/**
-	 * Create a gameSize
-	 */
-    private static Rectangle gameSize = new Rectangle(0, 0, 500, 500);
-    /**
-     * Create a bonus list fo the game
-     */
-    private static BonusListInGame bonusListInGame = new BonusListInGame();
-
     /**
      * Play the game in multiplayer mode
      */
     public static void run() {
-        // Set environnement
-        Snake.setGameSize(gameSize);
-        // Set Bonus List
-        Snake.setBonusListInGame(bonusListInGame);
+        // Size of the game, until the screen size is known
+        Rectangle gameSize = new Rectangle(0, 0, 500, 500);
+        GameEngine engine = new GameEngine(gameSize);
 
-
-        Player player1 = new Player(new Snake(new Point((int) gameSize.getCenterX(), (int) gameSize.getCenterY()), 0)
-                                           , Color.GREEN);
+        Player player1 = new Player(engine.getSnake(engine.addSnake(
+                new Point((int) gameSize.getCenterX(), (int) gameSize.getCenterY()), 0)), Color.GREEN);
 
 		/*
          * Interface Graphique initialisation
@@ -87,22 +72,21 @@ public class SinglePlayer {
 
             gameSize.height = (int) height;
             gameSize.width = (int) width;
-            context.renderFrame(graphics -> {
-                graphics.setColor(Color.WHITE);
-                graphics.fill(new Rectangle2D.Float(0, 0, width, height));
+            // The collision structure may depend on the game size
+            engine.getWorld().setGameSize(gameSize);
+            // Drawings of the ticks, displayed in one frame
+            FrameBuilder frame = new FrameBuilder((int) width, (int) height, engine.getBonusListInGame(), player1);
+            frame.render(context);
 
-            });
 
+            TickScheduler scheduler = new TickScheduler(GameEngine.TICK_PERIOD, TimeUnit.MILLISECONDS,
+                                                        GameEngine.MAX_CATCH_UP);
 
             boolean flag = false;
-            int time = 0;
-
-            List<RectangularShape> add = new ArrayList<>();
-            List<RectangularShape> erase = new ArrayList<>();
 
             while(true) {
-                Event event = context.pollOrWaitEvent(1);
-                time++;
+                // Wait for an event until the next tick
+                Event event = context.pollOrWaitEvent(scheduler.remaining(TimeUnit.MILLISECONDS));
                 if(event != null) { // no event
                     Action action = event.getAction();
                     if(action == Action.KEY_PRESSED) {
@@ -134,11 +118,26 @@ public class SinglePlayer {
                     }
                 }
 
-                if(time >= 25) {
+                for(int due = scheduler.due() ; due > 0 ; due--) {
+                    Delta delta;
                     try {
-                        if(player1.isAlive())
-                            player1.getPlayer().move(add, erase);
-                    } catch(CollisionException e) {
+                        delta = engine.tick();
+                    } catch(Exception e) {
+                        e.printStackTrace();
+                        context.exit(-1);
+                        return;
+                    }
+
+                    if(delta.isCleared())
+                        frame.clear();
+                    delta.getErased().forEach(frame::undraw);
+
+                    delta.getAdded(0).forEach(rectangularShape -> frame.draw(rectangularShape, player1.getColor()));
+
+                    frame.drawBonus(delta.getBonus());
+
+                    if(!engine.isAlive(0)) {
+                        frame.render(context);
                         player1.kill();
 
                         try {
@@ -149,27 +148,10 @@ public class SinglePlayer {
 
                         context.exit(0);
                         return;
-                    } catch(Exception e) {
-                        e.printStackTrace();
-                        context.exit(-1);
-                        return;
                     }
-
-                    time = 0;
                 }
 
-                erase.forEach(Draw::undraw);
-                erase.clear();
-
-                Draw.draw(player1.getPlayer().getQueue(), player1.getColor());
-
-                add.forEach(rectangularShape -> Draw.draw(rectangularShape, player1.getColor()));
-                add.clear();
-
-                Draw.drawBonus(bonusListInGame.random());
-
-
-                Snake.decrementAll();
+                frame.render(context);
             }
         });
 